@@ -0,0 +1,153 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.benchmarks;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+
+/**
+ * Components used by the benchmarks <br>
+ * ( the implementations found by convention are named 'Components$XxxImpl', see CONVENTION )
+ *
+ * @author Laurent Guerin
+ *
+ */
+public class Components {
+
+	/**
+	 * Convention for the nested implementation classes ( e.g. 'Components$ConventionServiceImpl' )
+	 */
+	public final static String CONVENTION = "${package}.Components$${class}Impl" ;
+
+	private Components() {
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns a new injector configuration without logging ( with the implementation convention )
+	 * @return
+	 */
+	public static InjectorConfiguration newConfiguration() {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		configuration.defineImplementationConvention(CONVENTION);
+		return configuration ;
+	}
+
+	public static Injector newInjector(String name) {
+		return InjectorFactory.createInjector(name, newConfiguration());
+	}
+
+	//-----------------------------------------------------------------------------------------
+	// Singleton and prototypes
+	//-----------------------------------------------------------------------------------------
+	@Singleton
+	public static class SingletonService {
+	}
+
+	public static class Dependency {
+	}
+
+	/**
+	 * Prototype with a constructor injection and a field injection
+	 */
+	public static class Prototype {
+		private final Dependency constructorDependency ;
+		@Inject
+		private SingletonService fieldDependency ;
+		@Inject
+		public Prototype(Dependency dependency) {
+			this.constructorDependency = dependency ;
+		}
+		public Dependency getConstructorDependency() {
+			return constructorDependency ;
+		}
+		public SingletonService getFieldDependency() {
+			return fieldDependency ;
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	// Deep dependency graph : 10 levels of prototypes
+	//-----------------------------------------------------------------------------------------
+	public static class Level9 {
+	}
+	public static class Level8 {
+		@Inject public Level8(Level9 next) { }
+	}
+	public static class Level7 {
+		@Inject public Level7(Level8 next) { }
+	}
+	public static class Level6 {
+		@Inject public Level6(Level7 next) { }
+	}
+	public static class Level5 {
+		@Inject public Level5(Level6 next) { }
+	}
+	public static class Level4 {
+		@Inject public Level4(Level5 next) { }
+	}
+	public static class Level3 {
+		@Inject public Level3(Level4 next) { }
+	}
+	public static class Level2 {
+		@Inject public Level2(Level3 next) { }
+	}
+	public static class Level1 {
+		@Inject public Level1(Level2 next) { }
+	}
+	public static class Level0 {
+		@Inject public Level0(Level1 next) { }
+	}
+
+	//-----------------------------------------------------------------------------------------
+	// Interface components
+	//-----------------------------------------------------------------------------------------
+	public interface Calculator {
+		int add(int a, int b) ;
+		int other() ;
+	}
+
+	public static class CalculatorImpl implements Calculator {
+		public int add(int a, int b) {
+			return a + b ;
+		}
+		public int other() {
+			return 0 ;
+		}
+	}
+
+	/**
+	 * Implementation found by convention ( 'ConventionServiceImpl' )
+	 */
+	public interface ConventionService {
+	}
+
+	@Singleton
+	public static class ConventionServiceImpl implements ConventionService {
+	}
+
+	/**
+	 * No implementation ( optional component )
+	 */
+	public interface MissingService {
+	}
+}
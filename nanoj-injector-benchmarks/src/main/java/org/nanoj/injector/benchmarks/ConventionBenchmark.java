@@ -0,0 +1,90 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.benchmarks.Components.ConventionService;
+import org.nanoj.injector.benchmarks.Components.MissingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolution of an interface with the implementation conventions : <br>
+ * . 'newInjectorHit' and 'newInjectorMiss' : first resolution ( new injector for each call, creation included ) <br>
+ * . 'repeatedMiss' : same optional component requested again ( no implementation ) <br>
+ * Run with 1 thread ( SingleThread ) and with all the available processors ( MultiThread )
+ *
+ * @author Laurent Guerin
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class ConventionBenchmark {
+
+	@Threads(1)
+	public static class SingleThread extends ConventionBenchmark {
+	}
+
+	@Threads(Threads.MAX)
+	public static class MultiThread extends ConventionBenchmark {
+	}
+
+	private Injector injector ;
+
+	@Setup
+	public void setup() {
+		injector = Components.newInjector("convention");
+	}
+
+	private static Object getOptionalInstance(Injector injector, Class<?> clazz) {
+		try {
+			return injector.getInstance(clazz);
+		} catch (InjectorException e) {
+			return e ;
+		}
+	}
+
+	@Benchmark
+	public Object newInjectorHit() {
+		return Components.newInjector("hit").getInstance(ConventionService.class);
+	}
+
+	@Benchmark
+	public Object newInjectorMiss() {
+		return getOptionalInstance(Components.newInjector("miss"), MissingService.class);
+	}
+
+	@Benchmark
+	public Object repeatedMiss() {
+		return getOptionalInstance(injector, MissingService.class);
+	}
+}
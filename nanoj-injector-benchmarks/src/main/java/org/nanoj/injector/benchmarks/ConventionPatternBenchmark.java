@@ -0,0 +1,81 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nanoj.injector.tools.ClassTools;
+import org.nanoj.injector.tools.ConventionPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Convention pattern rendering : pattern parsed at each call ( ClassTools.applyClassOnPattern ) 
+ * versus pattern parsed once ( ConventionPattern ) <br>
+ * Run with 1 thread ( SingleThread ) and with all the available processors ( MultiThread )
+ *
+ * @author Laurent Guerin
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class ConventionPatternBenchmark {
+
+	@Threads(1)
+	public static class SingleThread extends ConventionPatternBenchmark {
+	}
+
+	@Threads(Threads.MAX)
+	public static class MultiThread extends ConventionPatternBenchmark {
+	}
+
+	@Param({ "${package}.impl.${class}Impl", "${package-1}.impl.${class}Impl" })
+	private String pattern ;
+
+	private ConventionPattern conventionPattern ;
+
+	private Class<?> clazz ;
+
+	@Setup
+	public void setup() {
+		conventionPattern = new ConventionPattern(pattern);
+		clazz = ConventionPatternBenchmark.class ;
+	}
+
+	@Benchmark
+	public String applyClassOnPattern() {
+		return ClassTools.applyClassOnPattern(clazz, pattern);
+	}
+
+	@Benchmark
+	public String conventionPattern() {
+		return conventionPattern.apply(clazz);
+	}
+}
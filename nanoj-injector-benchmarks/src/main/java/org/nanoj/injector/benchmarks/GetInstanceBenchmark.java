@@ -0,0 +1,86 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.benchmarks.Components.Level0;
+import org.nanoj.injector.benchmarks.Components.Prototype;
+import org.nanoj.injector.benchmarks.Components.SingletonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 'getInstance' on an injector already built ( all the component definitions already resolved ) : <br>
+ * . singleton ( already created ) <br>
+ * . prototype with a constructor injection and a field injection <br>
+ * . deep dependency graph ( 10 levels of prototypes ) <br>
+ * Run with 1 thread ( SingleThread ) and with all the available processors ( MultiThread, same injector )
+ *
+ * @author Laurent Guerin
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class GetInstanceBenchmark {
+
+	@Threads(1)
+	public static class SingleThread extends GetInstanceBenchmark {
+	}
+
+	@Threads(Threads.MAX)
+	public static class MultiThread extends GetInstanceBenchmark {
+	}
+
+	private Injector injector ;
+
+	@Setup
+	public void setup() {
+		injector = Components.newInjector("get-instance");
+		injector.getInstance(SingletonService.class);
+		injector.getInstance(Prototype.class);
+		injector.getInstance(Level0.class);
+	}
+
+	@Benchmark
+	public Object singleton() {
+		return injector.getInstance(SingletonService.class);
+	}
+
+	@Benchmark
+	public Object prototype() {
+		return injector.getInstance(Prototype.class);
+	}
+
+	@Benchmark
+	public Object deepGraph() {
+		return injector.getInstance(Level0.class);
+	}
+}
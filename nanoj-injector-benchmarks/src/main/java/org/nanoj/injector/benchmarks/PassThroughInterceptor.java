@@ -0,0 +1,52 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.benchmarks;
+
+import java.lang.reflect.Method;
+
+import org.nanoj.injector.aop.AbstractMethodInterceptor;
+import org.nanoj.injector.aop.Interceptor;
+import org.nanoj.injector.aop.InterceptorProvider;
+import org.nanoj.injector.aop.MethodInvocation;
+
+/**
+ * Interceptor doing nothing but calling the next step of the chain
+ *
+ * @author Laurent Guerin
+ *
+ */
+public class PassThroughInterceptor extends AbstractMethodInterceptor {
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		return invocation.proceed();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns a provider of this interceptor for the methods with the given name only
+	 * @param methodName
+	 * @return
+	 */
+	public static InterceptorProvider providerFor(final String methodName) {
+		final PassThroughInterceptor interceptor = new PassThroughInterceptor();
+		return new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return methodName.equals(interfaceMethod.getName()) ? interceptor : null ;
+			}
+		};
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.ProxyEngine;
+import org.nanoj.injector.benchmarks.Components.Calculator;
+import org.nanoj.injector.benchmarks.Components.CalculatorImpl;
+import org.nanoj.injector.dynaproxy.GeneratedProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Call of a proxied component method with 0, 1 or 5 interceptors, for each proxy engine <br>
+ * ( with 0 interceptor the component is still proxied : another method of the interface is intercepted ) <br>
+ * 'directCall' is the same call without proxy <br>
+ * Run with 1 thread ( SingleThread ) and with all the available processors ( MultiThread, same proxy )
+ *
+ * @author Laurent Guerin
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class ProxyCallBenchmark {
+
+	@Threads(1)
+	public static class SingleThread extends ProxyCallBenchmark {
+	}
+
+	@Threads(Threads.MAX)
+	public static class MultiThread extends ProxyCallBenchmark {
+	}
+
+	/**
+	 * The proxied component for each number of interceptors and each proxy engine
+	 */
+	@State(Scope.Benchmark)
+	public static class ProxyState {
+
+		@Param({ "0", "1", "5" })
+		private int interceptors ;
+
+		@Param({ "JDK", "GENERATED" })
+		private ProxyEngine proxyEngine ;
+
+		private Calculator proxy ;
+
+		@Setup
+		public void setup() {
+			InjectorConfiguration configuration = Components.newConfiguration();
+			configuration.defineProxyEngine(proxyEngine);
+			configuration.defineImplementationClass(Calculator.class, CalculatorImpl.class);
+			configuration.defineInterceptorProvider(PassThroughInterceptor.providerFor("other"));
+			for ( int i = 0 ; i < interceptors ; i++ ) {
+				configuration.defineInterceptorProvider(PassThroughInterceptor.providerFor("add"));
+			}
+			proxy = InjectorFactory.createInjector("proxy-call", configuration).getInstance(Calculator.class);
+			if ( proxy instanceof CalculatorImpl ) {
+				throw new IllegalStateException("Component not proxied");
+			}
+			//--- No silent fallback to the JDK proxies ( e.g. ASM not in the classpath )
+			if ( proxyEngine == ProxyEngine.GENERATED && ! ( proxy instanceof GeneratedProxy ) ) {
+				throw new IllegalStateException("Generated proxy expected : " + proxy.getClass().getName());
+			}
+		}
+	}
+
+	private Calculator component ;
+
+	private int a = 1 ;
+
+	private int b = 2 ;
+
+	@Setup
+	public void setup() {
+		component = new CalculatorImpl();
+	}
+
+	@Benchmark
+	public int proxiedCall(ProxyState state) {
+		return state.proxy.add(a, b);
+	}
+
+	@Benchmark
+	public int directCall() {
+		return component.add(a, b);
+	}
+}
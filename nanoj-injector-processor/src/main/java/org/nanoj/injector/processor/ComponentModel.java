@@ -0,0 +1,153 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.processor;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Component class analysed at compile time : everything required to generate its factory <br>
+ * ( all the types are given with their source names, e.g. 'org.demo.Outer.Inner' )
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class ComponentModel {
+
+	/**
+	 * A field to be injected
+	 */
+	final static class InjectedField {
+		private final String  name ;
+		private final String  type ;
+		private final boolean staticField ;
+
+		InjectedField(String name, String type, boolean staticField) {
+			super();
+			this.name = name ;
+			this.type = type ;
+			this.staticField = staticField ;
+		}
+		String getName() {
+			return name ;
+		}
+		String getType() {
+			return type ;
+		}
+		boolean isStatic() {
+			return staticField ;
+		}
+	}
+
+	private final String  packageName ;
+
+	private final String  componentClassName ;
+
+	private final String  componentBinaryName ;
+
+	private final List<String>         constructorDependencies = new LinkedList<String>();
+
+	private final List<InjectedField>  injectedFields = new LinkedList<InjectedField>();
+
+	private boolean  singleton = false ;
+
+	private String   scopeAnnotation = null ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param packageName the package name ( void for the default package )
+	 * @param componentClassName the source name of the component class
+	 * @param componentBinaryName the binary name of the component class ( as returned by Class.getName )
+	 */
+	ComponentModel(String packageName, String componentClassName, String componentBinaryName) {
+		super();
+		this.packageName = packageName ;
+		this.componentClassName = componentClassName ;
+		this.componentBinaryName = componentBinaryName ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	String getPackageName() {
+		return packageName ;
+	}
+
+	String getComponentClassName() {
+		return componentClassName ;
+	}
+
+	String getComponentBinaryName() {
+		return componentBinaryName ;
+	}
+
+	/**
+	 * Returns the simple name of the factory class, e.g. 'Outer_Inner_NanojFactory' for 'org.demo.Outer.Inner'
+	 * @return
+	 */
+	String getFactorySimpleName() {
+		String name = componentClassName ;
+		if ( packageName.length() > 0 ) {
+			name = name.substring(packageName.length() + 1);
+		}
+		return name.replace('.', '_') + ComponentProcessor.FACTORY_SUFFIX ;
+	}
+
+	/**
+	 * Returns the full name of the factory class ( same package as the component class )
+	 * @return
+	 */
+	String getFactoryClassName() {
+		return packageName.length() > 0 ? packageName + "." + getFactorySimpleName() : getFactorySimpleName() ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	List<String> getConstructorDependencies() {
+		return constructorDependencies ;
+	}
+
+	void addConstructorDependency(String type) {
+		constructorDependencies.add(type);
+	}
+
+	List<InjectedField> getInjectedFields() {
+		return injectedFields ;
+	}
+
+	void addInjectedField(String name, String type, boolean staticField) {
+		injectedFields.add(new InjectedField(name, type, staticField));
+	}
+
+	//-----------------------------------------------------------------------------------------
+	boolean isSingleton() {
+		return singleton ;
+	}
+
+	void setSingleton(boolean singleton) {
+		this.singleton = singleton ;
+	}
+
+	/**
+	 * Returns the source name of the scope annotation ( other than "@Singleton" ), or null if none
+	 * @return
+	 */
+	String getScopeAnnotation() {
+		return scopeAnnotation ;
+	}
+
+	void setScopeAnnotation(String scopeAnnotation) {
+		this.scopeAnnotation = scopeAnnotation ;
+	}
+}
@@ -0,0 +1,489 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.annotation.RetentionPolicy;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the NanoJ injector component factories at compile time <br>
+ * <br>
+ * A component class is a concrete class with an "@Inject" constructor or field, or with a scope annotation ( "@Singleton", ... ) <br>
+ * For each component class it generates a factory ( see FactorySourceWriter ) with the same choices as the injector at runtime : <br>
+ * . the constructor : the only public constructor, or the only one with "@Inject", or the default constructor <br>
+ * . the fields declared with "@Inject" <br>
+ * . the "@Singleton" annotation ( any package ) and the other scope annotation <br>
+ * All the factories are registered in the index 'META-INF/nanoj/factories' <br>
+ * <br>
+ * Each concrete class is also registered as an implementation of its interfaces and abstract super classes 
+ * in the index 'META-INF/nanoj/components' ( used by the injector to resolve the conventions without class loading ) <br>
+ * <br>
+ * No factory is generated ( reflection used at runtime ) if a member cannot be used from the same package 
+ * ( e.g. a private "@Inject" field ) or if the constructor cannot be determined ( error reported at runtime )
+ *
+ * @author Laurent Guerin
+ *
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentProcessor extends AbstractProcessor {
+
+	final static String FACTORIES_RESOURCE = "META-INF/nanoj/factories" ;
+
+	final static String COMPONENTS_RESOURCE = "META-INF/nanoj/components" ;
+
+	final static String FACTORY_SUFFIX = "_NanojFactory" ;
+
+	/**
+	 * The factory class name for each component class name ( binary names, all the rounds )
+	 */
+	private final Map<String, Set<String>> factories = new TreeMap<String, Set<String>>();
+
+	/**
+	 * The implementation class names for each interface or abstract class name ( binary names, all the rounds )
+	 */
+	private final Map<String, Set<String>> components = new TreeMap<String, Set<String>>();
+
+	/**
+	 * The factories generated by this processor ( not registered as implementations )
+	 */
+	private final Set<String> generatedFactories = new TreeSet<String>();
+
+	//-----------------------------------------------------------------------------------------
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if ( roundEnv.processingOver() ) {
+			writeIndex(FACTORIES_RESOURCE, factories, "component class = factory class");
+			writeIndex(COMPONENTS_RESOURCE, components, "interface or abstract class = implementation class");
+		}
+		else {
+			for ( Element element : roundEnv.getRootElements() ) {
+				processType(element);
+			}
+		}
+		return false ; // the annotations are not claimed ( "*" )
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Generates the factory of the given type if it's a component, then processes its member types
+	 * @param element
+	 */
+	private void processType(Element element) {
+		if ( ! ( element instanceof TypeElement ) ) {
+			return ;
+		}
+		TypeElement typeElement = (TypeElement) element ;
+		if ( typeElement.getKind() == ElementKind.CLASS && ! typeElement.getModifiers().contains(Modifier.ABSTRACT) 
+				&& ! generatedFactories.contains(typeElement.getQualifiedName().toString()) ) {
+			registerImplementation(typeElement);
+			if ( isComponent(typeElement) ) {
+				ComponentModel model = analyse(typeElement);
+				if ( model != null ) {
+					generateFactory(typeElement, model);
+				}
+			}
+		}
+		for ( Element enclosed : typeElement.getEnclosedElements() ) {
+			processType(enclosed);
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Registers the given concrete class as an implementation of all its interfaces and abstract super classes 
+	 * ( except the Java standard types )
+	 * @param typeElement
+	 */
+	private void registerImplementation(TypeElement typeElement) {
+		if ( typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS ) {
+			return ;
+		}
+		String implementation = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+		Set<TypeElement> superTypes = new LinkedHashSet<TypeElement>();
+		collectSuperTypes(typeElement.asType(), superTypes);
+		for ( TypeElement superType : superTypes ) {
+			if ( superType.getKind() == ElementKind.INTERFACE || superType.getModifiers().contains(Modifier.ABSTRACT) ) {
+				String name = processingEnv.getElementUtils().getBinaryName(superType).toString();
+				if ( ! name.startsWith("java.") && ! name.startsWith("javax.") ) {
+					addEntry(components, name, implementation);
+				}
+			}
+		}
+	}
+
+	private void collectSuperTypes(TypeMirror type, Set<TypeElement> superTypes) {
+		for ( TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(type) ) {
+			if ( superType.getKind() == TypeKind.DECLARED ) {
+				TypeElement superElement = (TypeElement) ((DeclaredType) superType).asElement();
+				if ( superTypes.add(superElement) ) {
+					collectSuperTypes(superType, superTypes);
+				}
+			}
+		}
+	}
+
+	private static void addEntry(Map<String, Set<String>> index, String key, String value) {
+		Set<String> values = index.get(key);
+		if ( values == null ) {
+			values = new TreeSet<String>();
+			index.put(key, values);
+		}
+		values.add(value);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the given class is a component ( concrete class with "@Inject" or with a scope annotation )
+	 * @param typeElement
+	 * @return
+	 */
+	private boolean isComponent(TypeElement typeElement) {
+		for ( AnnotationMirror a : getRuntimeAnnotations(typeElement) ) {
+			if ( isScope(a) ) {
+				return true ;
+			}
+		}
+		for ( Element member : typeElement.getEnclosedElements() ) {
+			if ( ( member.getKind() == ElementKind.CONSTRUCTOR || member.getKind() == ElementKind.FIELD ) && hasInjectAnnotation(member) ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Analyses the given component class
+	 * @param typeElement
+	 * @return the model, or null if no factory can be generated for this class ( reflection used at runtime )
+	 */
+	private ComponentModel analyse(TypeElement typeElement) {
+		String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+		if ( ! isAccessible(typeElement, packageName) ) {
+			return skip(typeElement, "class not accessible from its package");
+		}
+		ComponentModel model = new ComponentModel(packageName, typeElement.getQualifiedName().toString(), 
+				processingEnv.getElementUtils().getBinaryName(typeElement).toString() );
+
+		//--- Constructor
+		ExecutableElement constructor = getConstructorToBeUsed(typeElement);
+		if ( constructor == null ) {
+			return skip(typeElement, "cannot determine the constructor");
+		}
+		for ( VariableElement parameter : constructor.getParameters() ) {
+			String type = getDependencyType(parameter.asType(), packageName);
+			if ( type == null ) {
+				return skip(typeElement, "constructor parameter '" + parameter.getSimpleName() + "' not usable");
+			}
+			model.addConstructorDependency(type);
+		}
+
+		//--- Fields to be injected
+		for ( Element member : typeElement.getEnclosedElements() ) {
+			if ( member.getKind() == ElementKind.FIELD && hasInjectAnnotation(member) ) {
+				Set<Modifier> modifiers = member.getModifiers();
+				if ( modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) ) {
+					return skip(typeElement, "field '" + member.getSimpleName() + "' is private or final");
+				}
+				String type = getDependencyType(member.asType(), packageName);
+				if ( type == null ) {
+					return skip(typeElement, "field '" + member.getSimpleName() + "' not usable");
+				}
+				model.addInjectedField(member.getSimpleName().toString(), type, modifiers.contains(Modifier.STATIC));
+			}
+		}
+
+		//--- Singleton and scope
+		for ( AnnotationMirror a : getRuntimeAnnotations(typeElement) ) {
+			if ( isSingleton(a) ) {
+				model.setSingleton(true);
+			}
+			else if ( isScope(a) && model.getScopeAnnotation() == null ) {
+				TypeElement annotationType = (TypeElement) a.getAnnotationType().asElement();
+				if ( ! isAccessible(annotationType, packageName) ) {
+					return skip(typeElement, "scope annotation not accessible");
+				}
+				model.setScopeAnnotation(annotationType.getQualifiedName().toString());
+			}
+		}
+		return model ;
+	}
+
+	private ComponentModel skip(TypeElement typeElement, String reason) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, 
+				"No component factory generated for " + typeElement.getQualifiedName() + " : " + reason + " (reflection used)", typeElement);
+		return null ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the constructor used by the injector at runtime, or null if it cannot be determined <br>
+	 * ( same rules as the runtime : public constructors only )
+	 * @param typeElement
+	 * @return
+	 */
+	private ExecutableElement getConstructorToBeUsed(TypeElement typeElement) {
+		List<ExecutableElement> constructors = new LinkedList<ExecutableElement>();
+		for ( Element member : typeElement.getEnclosedElements() ) {
+			if ( member.getKind() == ElementKind.CONSTRUCTOR && member.getModifiers().contains(Modifier.PUBLIC) ) {
+				constructors.add((ExecutableElement) member);
+			}
+		}
+		if ( constructors.size() == 1 ) {
+			return constructors.get(0);
+		}
+		ExecutableElement defaultConstructor = null ;
+		ExecutableElement constructorWithInject = null ;
+		int injectCount = 0 ;
+		for ( ExecutableElement constructor : constructors ) {
+			if ( hasInjectAnnotation(constructor) ) {
+				constructorWithInject = constructor ;
+				injectCount++ ;
+			}
+			if ( constructor.getParameters().isEmpty() ) {
+				defaultConstructor = constructor ;
+			}
+		}
+		if ( injectCount == 1 ) {
+			return constructorWithInject ;
+		}
+		if ( injectCount == 0 ) {
+			return defaultConstructor ;
+		}
+		return null ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the source name of the class of a dependency ( erasure ), or null if not usable from the given package
+	 * @param type
+	 * @param packageName
+	 * @return
+	 */
+	private String getDependencyType(TypeMirror type, String packageName) {
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if ( erasure.getKind() != TypeKind.DECLARED ) {
+			return null ; // primitive, array, ...
+		}
+		TypeElement typeElement = (TypeElement) ((DeclaredType) erasure).asElement();
+		if ( ! isAccessible(typeElement, packageName) ) {
+			return null ;
+		}
+		return typeElement.getQualifiedName().toString();
+	}
+
+	/**
+	 * Returns true if the given type can be used from a class of the given package
+	 * @param typeElement
+	 * @param packageName
+	 * @return
+	 */
+	private boolean isAccessible(TypeElement typeElement, String packageName) {
+		Element e = typeElement ;
+		while ( e instanceof TypeElement ) {
+			TypeElement t = (TypeElement) e ;
+			Set<Modifier> modifiers = t.getModifiers();
+			if ( modifiers.contains(Modifier.PRIVATE) ) {
+				return false ;
+			}
+			if ( ! modifiers.contains(Modifier.PUBLIC) ) {
+				String typePackage = processingEnv.getElementUtils().getPackageOf(t).getQualifiedName().toString();
+				if ( ! typePackage.equals(packageName) ) {
+					return false ;
+				}
+			}
+			if ( t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS ) {
+				return false ;
+			}
+			if ( t.getNestingKind() == NestingKind.MEMBER && ! modifiers.contains(Modifier.STATIC) 
+					&& t.getEnclosingElement().getKind() == ElementKind.CLASS ) {
+				return false ; // inner class : requires an enclosing instance
+			}
+			e = t.getEnclosingElement();
+		}
+		return true ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the annotations of the given element that are visible at runtime ( as the injector sees them )
+	 * @param element
+	 * @return
+	 */
+	private List<AnnotationMirror> getRuntimeAnnotations(Element element) {
+		List<AnnotationMirror> list = new LinkedList<AnnotationMirror>();
+		for ( AnnotationMirror a : element.getAnnotationMirrors() ) {
+			if ( hasRuntimeRetention(a.getAnnotationType().asElement()) ) {
+				list.add(a);
+			}
+		}
+		return list ;
+	}
+
+	private boolean hasRuntimeRetention(Element annotationType) {
+		for ( AnnotationMirror a : annotationType.getAnnotationMirrors() ) {
+			if ( "java.lang.annotation.Retention".equals(getAnnotationName(a)) ) {
+				for ( AnnotationValue value : a.getElementValues().values() ) {
+					return RetentionPolicy.RUNTIME.name().equals(value.getValue().toString());
+				}
+			}
+		}
+		return false ; // default retention : CLASS
+	}
+
+	private String getAnnotationName(AnnotationMirror a) {
+		return ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().toString();
+	}
+
+	private boolean hasInjectAnnotation(Element element) {
+		for ( AnnotationMirror a : getRuntimeAnnotations(element) ) {
+			if ( getAnnotationName(a).endsWith(".Inject") ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	private boolean isSingleton(AnnotationMirror a) {
+		return getAnnotationName(a).endsWith(".Singleton") ;
+	}
+
+	private boolean isScope(AnnotationMirror a) {
+		for ( AnnotationMirror meta : a.getAnnotationType().asElement().getAnnotationMirrors() ) {
+			if ( "javax.inject.Scope".equals(getAnnotationName(meta)) ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	private void generateFactory(TypeElement typeElement, ComponentModel model) {
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(model.getFactoryClassName(), typeElement);
+			Writer writer = file.openWriter();
+			try {
+				new FactorySourceWriter(model).write(writer);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, 
+					"Cannot generate component factory " + model.getFactoryClassName() + " : " + e.getMessage(), typeElement);
+			return ;
+		}
+		generatedFactories.add(model.getFactoryClassName());
+		addEntry(factories, model.getComponentBinaryName(), model.getFactoryClassName());
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Writes the given index resource <br>
+	 * The entries of the existing index are kept ( incremental compilation ), the stale ones are ignored at runtime
+	 * @param resourceName
+	 * @param entries the entries found by this compilation
+	 * @param comment
+	 */
+	private void writeIndex(String resourceName, Map<String, Set<String>> entries, String comment) {
+		Map<String, Set<String>> index = new TreeMap<String, Set<String>>();
+		readExistingIndex(resourceName, index);
+		for ( Map.Entry<String, Set<String>> entry : entries.entrySet() ) {
+			for ( String value : entry.getValue() ) {
+				addEntry(index, entry.getKey(), value);
+			}
+		}
+		if ( index.isEmpty() ) {
+			return ;
+		}
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resourceName);
+			PrintWriter out = new PrintWriter(file.openWriter());
+			try {
+				out.println("# Generated by " + ComponentProcessor.class.getName() + " ( " + comment + " )");
+				for ( Map.Entry<String, Set<String>> entry : index.entrySet() ) {
+					for ( String value : entry.getValue() ) {
+						out.println(entry.getKey() + "=" + value);
+					}
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, 
+					"Cannot write " + resourceName + " : " + e.getMessage());
+		}
+	}
+
+	private void readExistingIndex(String resourceName, Map<String, Set<String>> index) {
+		try {
+			FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", resourceName);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), "UTF-8"));
+			try {
+				String line ;
+				while ( ( line = reader.readLine() ) != null ) {
+					int i = line.indexOf('=');
+					if ( ! line.startsWith("#") && i > 0 ) {
+						addEntry(index, line.substring(0, i).trim(), line.substring(i + 1).trim());
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			// No existing index ( full compilation )
+		} catch (IllegalArgumentException e) {
+			// Resource not supported by this filer
+		}
+	}
+}
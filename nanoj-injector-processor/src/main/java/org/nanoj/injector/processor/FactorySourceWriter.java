@@ -0,0 +1,159 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.processor;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+
+import org.nanoj.injector.processor.ComponentModel.InjectedField;
+
+/**
+ * Writes the source of the factory of a component ( implementation of 'org.nanoj.injector.spi.ComponentFactory' ) <br>
+ * <br>
+ * The generated factory calls the constructor and sets the fields directly : no reflection at runtime <br>
+ * The exceptions thrown by the constructor ( checked or not ) are wrapped in an InjectorException, 
+ * as with the reflection ( an Error is thrown as is )
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class FactorySourceWriter {
+
+	private final static String COMPONENT_FACTORY = "org.nanoj.injector.spi.ComponentFactory" ;
+
+	private final static String INJECTOR_EXCEPTION = "org.nanoj.injector.InjectorException" ;
+
+	private final ComponentModel  model ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param model the component
+	 */
+	FactorySourceWriter(ComponentModel model) {
+		super();
+		this.model = model ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Writes the factory source
+	 * @param writer
+	 */
+	void write(Writer writer) {
+		PrintWriter out = new PrintWriter(writer);
+		String component = model.getComponentClassName() ;
+
+		if ( model.getPackageName().length() > 0 ) {
+			out.println("package " + model.getPackageName() + ";");
+			out.println();
+		}
+		out.println("/**");
+		out.println(" * Factory of '" + component + "' generated by " + ComponentProcessor.class.getName() + " ( do not edit )");
+		out.println(" */");
+		out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+		out.println("public final class " + model.getFactorySimpleName() + " implements " + COMPONENT_FACTORY + "<" + component + "> {");
+		out.println();
+		out.println("\tprivate final static Class<?>[] CONSTRUCTOR_DEPENDENCIES = " + classesArray(model.getConstructorDependencies()) + " ;");
+		out.println();
+		out.println("\tprivate final static Class<?>[] FIELD_DEPENDENCIES = " + classesArray(getFieldTypes()) + " ;");
+		out.println();
+
+		out.println("\tpublic Class<" + component + "> getComponentClass() {");
+		out.println("\t\treturn " + component + ".class ;");
+		out.println("\t}");
+		out.println();
+		out.println("\tpublic Class<?>[] getConstructorDependencies() {");
+		out.println("\t\treturn CONSTRUCTOR_DEPENDENCIES ;");
+		out.println("\t}");
+		out.println();
+		out.println("\tpublic Class<?>[] getFieldDependencies() {");
+		out.println("\t\treturn FIELD_DEPENDENCIES ;");
+		out.println("\t}");
+		out.println();
+		out.println("\tpublic boolean isSingleton() {");
+		out.println("\t\treturn " + model.isSingleton() + " ;");
+		out.println("\t}");
+		out.println();
+		out.println("\tpublic Class<? extends java.lang.annotation.Annotation> getScopeAnnotation() {");
+		out.println("\t\treturn " + ( model.getScopeAnnotation() != null ? model.getScopeAnnotation() + ".class" : "null" ) + " ;");
+		out.println("\t}");
+		out.println();
+
+		//--- Constructor call ( same exceptions as with the reflection )
+		out.println("\tpublic " + component + " newInstance(Object[] args) {");
+		StringBuilder sb = new StringBuilder();
+		int i = 0 ;
+		for ( String type : model.getConstructorDependencies() ) {
+			if ( i > 0 ) {
+				sb.append(", ");
+			}
+			sb.append("(" + type + ") args[" + i + "]");
+			i++ ;
+		}
+		out.println("\t\ttry {");
+		out.println("\t\t\treturn new " + component + "(" + sb + ") ;");
+		out.println("\t\t} catch (Error e) {");
+		out.println("\t\t\tthrow e ;");
+		out.println("\t\t} catch (Throwable e) {");
+		out.println("\t\t\tthrow new " + INJECTOR_EXCEPTION + "(\"Cannot create instance for class \" + " + component + ".class, e) ;");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+
+		//--- Fields assignment
+		out.println("\tpublic void injectFields(" + component + " instance, Object[] values) {");
+		i = 0 ;
+		for ( InjectedField field : model.getInjectedFields() ) {
+			String target = field.isStatic() ? component : "instance" ;
+			out.println("\t\t" + target + "." + field.getName() + " = (" + field.getType() + ") values[" + i + "] ;");
+			i++ ;
+		}
+		out.println("\t}");
+		out.println("}");
+		out.flush();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	private String[] getFieldTypes() {
+		List<InjectedField> fields = model.getInjectedFields();
+		String[] types = new String[fields.size()];
+		int i = 0 ;
+		for ( InjectedField field : fields ) {
+			types[i++] = field.getType();
+		}
+		return types ;
+	}
+
+	private String classesArray(List<String> types) {
+		return classesArray(types.toArray(new String[types.size()]));
+	}
+
+	private String classesArray(String[] types) {
+		if ( types.length == 0 ) {
+			return "new Class<?>[0]" ;
+		}
+		StringBuilder sb = new StringBuilder("{ ");
+		for ( int i = 0 ; i < types.length ; i++ ) {
+			if ( i > 0 ) {
+				sb.append(", ");
+			}
+			sb.append(types[i]).append(".class");
+		}
+		return sb.append(" }").toString();
+	}
+}
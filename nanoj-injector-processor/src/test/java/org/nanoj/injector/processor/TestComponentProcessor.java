@@ -0,0 +1,224 @@
+package org.nanoj.injector.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.spi.ComponentFactory;
+
+public class TestComponentProcessor extends TestCase {
+
+	private File outputDir ;
+
+	/**
+	 * Source file given as a string
+	 */
+	private static class Source extends SimpleJavaFileObject {
+		private final String code ;
+		Source(String className, String code) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.code = code ;
+		}
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code ;
+		}
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		outputDir = Files.createTempDirectory("nanoj-processor").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		delete(outputDir);
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if ( children != null ) {
+			for ( File child : children ) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Compiles the given sources with the processor ( the output directory is in the classpath : incremental compilation )
+	 * @param sources
+	 * @return the notes reported by the processor
+	 */
+	private List<String> compile(Source... sources) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, Charset.forName("UTF-8"));
+		try {
+			List<String> options = Arrays.asList("-d", outputDir.getPath(), "-s", outputDir.getPath(),
+					"-classpath", System.getProperty("java.class.path") + File.pathSeparator + outputDir.getPath());
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, Arrays.asList(sources));
+			task.setProcessors(Arrays.asList(new ComponentProcessor()));
+			boolean success = task.call();
+			List<String> notes = new LinkedList<String>();
+			for ( Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics() ) {
+				if ( diagnostic.getKind() == Diagnostic.Kind.NOTE ) {
+					notes.add(diagnostic.getMessage(null));
+				}
+			}
+			assertTrue("Compilation errors : " + diagnostics.getDiagnostics(), success);
+			return notes ;
+		} finally {
+			fileManager.close();
+		}
+	}
+
+	private List<String> readIndex(String resourceName) throws IOException {
+		List<String> entries = new LinkedList<String>();
+		for ( String line : Files.readAllLines(new File(outputDir, resourceName).toPath(), Charset.forName("UTF-8")) ) {
+			if ( ! line.startsWith("#") ) {
+				entries.add(line);
+			}
+		}
+		return entries ;
+	}
+
+	private ComponentFactory<?> loadFactory(URLClassLoader classLoader, String factoryClassName) throws Exception {
+		return (ComponentFactory<?>) classLoader.loadClass(factoryClassName).getDeclaredConstructor().newInstance();
+	}
+
+	private URLClassLoader newClassLoader() throws IOException {
+		return new URLClassLoader(new URL[] { outputDir.toURI().toURL() }, getClass().getClassLoader());
+	}
+
+	private final static Source DEPENDENCY = new Source("demo.Dependency",
+			"package demo; public class Dependency { }");
+
+	//-----------------------------------------------------------------------------------------
+	public void testNestedClass() throws Exception {
+		compile(DEPENDENCY, new Source("demo.Outer",
+				"package demo; \n"
+				+ "public class Outer { \n"
+				+ "  public static class Inner { \n"
+				+ "    public final Dependency dependency ; \n"
+				+ "    @javax.inject.Inject public Inner(Dependency dependency) { this.dependency = dependency ; } \n"
+				+ "  } \n"
+				+ "}"));
+
+		assertEquals(Arrays.asList("demo.Outer$Inner=demo.Outer_Inner_NanojFactory"), readIndex(ComponentProcessor.FACTORIES_RESOURCE));
+
+		URLClassLoader classLoader = newClassLoader();
+		try {
+			ComponentFactory<?> factory = loadFactory(classLoader, "demo.Outer_Inner_NanojFactory");
+			assertEquals("demo.Outer$Inner", factory.getComponentClass().getName());
+			assertEquals(1, factory.getConstructorDependencies().length);
+			Object dependency = classLoader.loadClass("demo.Dependency").getDeclaredConstructor().newInstance();
+			Object instance = factory.newInstance(new Object[] { dependency });
+			assertSame(dependency, instance.getClass().getField("dependency").get(instance));
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void testInjectedFields() throws Exception {
+		List<String> notes = compile(DEPENDENCY, new Source("demo.Fields",
+				"package demo; \n"
+				+ "public class Fields { \n"
+				+ "  @javax.inject.Inject Dependency dependency ; \n"
+				+ "  @javax.inject.Inject static Dependency staticDependency ; \n"
+				+ "} \n"
+				+ "class PrivateField { \n"
+				+ "  @javax.inject.Inject private Dependency dependency ; \n"
+				+ "}"));
+
+		//--- Private field : no factory ( reflection at runtime )
+		assertEquals(Arrays.asList("demo.Fields=demo.Fields_NanojFactory"), readIndex(ComponentProcessor.FACTORIES_RESOURCE));
+		assertTrue(notes.toString().contains("No component factory generated for demo.PrivateField"));
+
+		URLClassLoader classLoader = newClassLoader();
+		try {
+			ComponentFactory factory = loadFactory(classLoader, "demo.Fields_NanojFactory");
+			assertEquals(0, factory.getConstructorDependencies().length);
+			assertEquals(2, factory.getFieldDependencies().length);
+			Object dependency = classLoader.loadClass("demo.Dependency").getDeclaredConstructor().newInstance();
+			Object staticDependency = classLoader.loadClass("demo.Dependency").getDeclaredConstructor().newInstance();
+			Object instance = factory.newInstance(new Object[0]);
+			factory.injectFields(instance, new Object[] { dependency, staticDependency });
+			assertSame(dependency, getField(instance.getClass(), "dependency").get(instance));
+			assertSame(staticDependency, getField(instance.getClass(), "staticDependency").get(null));
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	private Field getField(Class<?> clazz, String name) throws NoSuchFieldException {
+		Field field = clazz.getDeclaredField(name);
+		field.setAccessible(true);
+		return field ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	public void testCheckedExceptionConstructor() throws Exception {
+		compile(DEPENDENCY, new Source("demo.Resource",
+				"package demo; \n"
+				+ "public class Resource { \n"
+				+ "  @javax.inject.Inject public Resource(Dependency dependency) throws java.io.IOException { \n"
+				+ "    if ( dependency == null ) throw new java.io.IOException(\"no dependency\"); \n"
+				+ "  } \n"
+				+ "}"));
+
+		URLClassLoader classLoader = newClassLoader();
+		try {
+			ComponentFactory<?> factory = loadFactory(classLoader, "demo.Resource_NanojFactory");
+			try {
+				factory.newInstance(new Object[] { null });
+				fail("InjectorException expected");
+			} catch (InjectorException e) {
+				assertTrue(e.getCause() instanceof IOException);
+			}
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	public void testIncrementalIndex() throws Exception {
+		compile(DEPENDENCY,
+				new Source("demo.Service", "package demo; public interface Service { }"),
+				new Source("demo.ServiceImpl", "package demo; @javax.inject.Singleton public class ServiceImpl implements Service { }"));
+
+		//--- Second compilation in the same output : a new class only
+		compile(new Source("demo.OtherServiceImpl",
+				"package demo; @javax.inject.Singleton public class OtherServiceImpl implements Service { }"));
+
+		assertEquals(Arrays.asList(
+				"demo.OtherServiceImpl=demo.OtherServiceImpl_NanojFactory",
+				"demo.ServiceImpl=demo.ServiceImpl_NanojFactory"),
+				readIndex(ComponentProcessor.FACTORIES_RESOURCE));
+		assertEquals(Arrays.asList(
+				"demo.Service=demo.OtherServiceImpl",
+				"demo.Service=demo.ServiceImpl"),
+				readIndex(ComponentProcessor.COMPONENTS_RESOURCE));
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector;
+
+/**
+ * Policy applied when the buffer of the asynchronous interceptors events is full <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+public enum AsyncOverflowPolicy {
+
+	/**
+	 * The event is dropped ( the caller is never delayed )
+	 */
+	DROP,
+
+	/**
+	 * The caller waits for a free place in the buffer ( no event lost )
+	 */
+	BLOCK ;
+
+}
@@ -15,17 +15,26 @@
  */
 package org.nanoj.injector;
 
+import java.lang.annotation.Annotation;
 import java.util.HashMap;
 import java.util.LinkedList;
 
 import javax.inject.Provider;
+import javax.inject.Scope;
+import javax.inject.Singleton;
 
 import org.nanoj.injector.aop.InterceptorProvider;
+import org.nanoj.injector.aop.PointCut;
+import org.nanoj.injector.aop.PointCutInterceptorProvider;
+import org.nanoj.injector.scope.ComponentScope;
+import org.nanoj.injector.scope.ThreadScope;
+import org.nanoj.injector.scope.ThreadScoped;
 import org.nanoj.injector.tools.ClassTools;
+import org.nanoj.injector.tools.ConventionPattern;
 
 public class InjectorConfiguration {
 
-	private final static String[] VOID_STRING_ARRAY = new String[0];
+	private final static ConventionPattern[] VOID_CONVENTION_PATTERN_ARRAY = new ConventionPattern[0];
 	
 	private final static InterceptorProvider[] VOID_INTERCEPTOR_PROVIDER_ARRAY = new InterceptorProvider[0];
 	
@@ -43,7 +52,7 @@ public class InjectorConfiguration {
     /**
      * List of implementation conventions patterns
      */
-    private final LinkedList<String>              _implementationConventions = new LinkedList<String>() ;
+    private final LinkedList<ConventionPattern>   _implementationConventions = new LinkedList<ConventionPattern>() ;
     
 //    /**
 //     * Interceptor provider 
@@ -54,6 +63,40 @@ public class InjectorConfiguration {
      */
     private final LinkedList<InterceptorProvider> _interceptorProviders = new LinkedList<InterceptorProvider>()  ;
 
+    /**
+     * Logging policy ( lifecycle events only by default )
+     */
+    private LoggingPolicy _loggingPolicy = LoggingPolicy.LIFECYCLE ;
+
+    /**
+     * True if the component index can be partial ( some implementations compiled without the processor )
+     */
+    private boolean _partialComponentIndex = false ;
+
+    /**
+     * Number of threads used to create the singletons when the injector is built eagerly ( 1 = sequential )
+     */
+    private int _warmUpParallelism = 1 ;
+
+    /**
+     * Proxy engine for the intercepted components ( JDK dynamic proxies by default )
+     */
+    private ProxyEngine _proxyEngine = ProxyEngine.JDK ;
+
+    /**
+     * Buffer size and overflow policy for the asynchronous interceptors events
+     */
+    private int _asyncBufferSize = 1024 ;
+    private AsyncOverflowPolicy _asyncOverflowPolicy = AsyncOverflowPolicy.DROP ;
+
+    /**
+     * The scopes for each scope annotation ( the thread scope is always defined )
+     */
+    private final HashMap<Class<? extends Annotation>, ComponentScope> _scopes = new HashMap<Class<? extends Annotation>, ComponentScope>() ;
+    {
+    	_scopes.put(ThreadScoped.class, new ThreadScope());
+    }
+
 	//-------------------------------------------------------------------------------------------------------------
 	// Implementation classes
 	//-------------------------------------------------------------------------------------------------------------
@@ -93,10 +136,11 @@ public class InjectorConfiguration {
 	//-------------------------------------------------------------------------------------------------------------
 	/**
 	 * Defines an implementation convention based on the given pattern.
+	 * ( the pattern is parsed here, once for all the lookups )
 	 * @param pattern
 	 */
 	public void defineImplementationConvention(String pattern) {
-		_implementationConventions.add(pattern);
+		_implementationConventions.add(new ConventionPattern(pattern));
 	}
 	
 	/**
@@ -104,9 +148,43 @@ public class InjectorConfiguration {
 	 * @return
 	 */
 	protected String[] getImplementationConventions () {
-		return _implementationConventions.toArray( VOID_STRING_ARRAY ) ;
+		String[] patterns = new String[_implementationConventions.size()];
+		int i = 0 ;
+		for ( ConventionPattern conventionPattern : _implementationConventions ) {
+			patterns[i++] = conventionPattern.getPattern();
+		}
+		return patterns ;
+	}	
+	
+	/**
+	 * Returns an array of all the implementation conventions defined ( parsed patterns ).
+	 * @return
+	 */
+	protected ConventionPattern[] getImplementationConventionPatterns () {
+		return _implementationConventions.toArray( VOID_CONVENTION_PATTERN_ARRAY ) ;
 	}	
 	
+	/**
+	 * Defines whether the component index ( 'META-INF/nanoj/components' generated by the processor ) can be partial <br>
+	 * By default an interface listed in the index is resolved with its indexed implementations only <br>
+	 * If true and no indexed implementation matches the conventions, each other class name given by the conventions 
+	 * is loaded ( for implementations compiled without the processor ) <br>
+	 * Default value : false
+	 * 
+	 * @param partialComponentIndex
+	 */
+	public void definePartialComponentIndex(boolean partialComponentIndex) {
+		_partialComponentIndex = partialComponentIndex ;
+	}
+	
+	/**
+	 * Returns true if the component index can be partial
+	 * @return
+	 */
+	protected boolean isPartialComponentIndex() {
+		return _partialComponentIndex ;
+	}
+	
 	//-------------------------------------------------------------------------------------------------------------
 	// Implementation providers
 	//-------------------------------------------------------------------------------------------------------------
@@ -141,9 +219,166 @@ public class InjectorConfiguration {
 		_interceptorProviders.add(interceptorProvider);
 	}
 	
+	/**
+	 * Defines an interceptor provider used only for the methods matched by the given PointCut <br>
+	 * The PointCut is evaluated once for each method and implementation class ( the result is kept by the container )
+	 * 
+	 * @param interceptorProvider
+	 * @param pointCut
+	 */
+	public void defineInterceptorProvider(InterceptorProvider interceptorProvider, PointCut pointCut) {
+		_interceptorProviders.add(new PointCutInterceptorProvider(interceptorProvider, pointCut));
+	}
+	
 	protected InterceptorProvider[] getInterceptorProviders() {
 		return _interceptorProviders.toArray(VOID_INTERCEPTOR_PROVIDER_ARRAY) ;
 	}
 	
+	//-------------------------------------------------------------------------------------------------------------
+	// Logging policy
+	//-------------------------------------------------------------------------------------------------------------
+	/**
+	 * Defines the logging policy of the injector ( default : LIFECYCLE )
+	 * 
+	 * @param loggingPolicy
+	 */
+	public void defineLoggingPolicy(LoggingPolicy loggingPolicy) {
+		if ( null == loggingPolicy ) {
+			throw new IllegalArgumentException("LoggingPolicy is null");
+		}
+		_loggingPolicy = loggingPolicy ;
+	}
+	
+	/**
+	 * Returns the logging policy 
+	 * @return
+	 */
+	protected LoggingPolicy getLoggingPolicy() {
+		return _loggingPolicy ;
+	}
+	
+	//-------------------------------------------------------------------------------------------------------------
+	// Singletons warm-up
+	//-------------------------------------------------------------------------------------------------------------
+	/**
+	 * Defines the number of threads used to create the singletons when the injector is built eagerly <br>
+	 * ( see InjectorFactory.createInjector with root components ) <br>
+	 * The independent singletons are created in parallel, each singleton after its dependencies <br>
+	 * Default value : 1 ( sequential creation )
+	 * 
+	 * @param parallelism number of threads ( e.g. Runtime.getRuntime().availableProcessors() )
+	 */
+	public void defineWarmUpParallelism(int parallelism) {
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException("Invalid warm-up parallelism " + parallelism );
+		}
+		_warmUpParallelism = parallelism ;
+	}
+	
+	/**
+	 * Returns the number of threads used to create the singletons 
+	 * @return
+	 */
+	protected int getWarmUpParallelism() {
+		return _warmUpParallelism ;
+	}
+	
+	
+	//-------------------------------------------------------------------------------------------------------------
+	// Proxies
+	//-------------------------------------------------------------------------------------------------------------
+	/**
+	 * Defines the engine used to create the proxies of the intercepted components ( default : JDK ) <br>
+	 * GENERATED requires ASM in the classpath, the JDK proxies are used for the interfaces not supported
+	 * 
+	 * @param proxyEngine
+	 */
+	public void defineProxyEngine(ProxyEngine proxyEngine) {
+		if ( null == proxyEngine ) {
+			throw new IllegalArgumentException("ProxyEngine is null");
+		}
+		_proxyEngine = proxyEngine ;
+	}
+	
+	/**
+	 * Returns the proxy engine 
+	 * @return
+	 */
+	protected ProxyEngine getProxyEngine() {
+		return _proxyEngine ;
+	}
+	
+	//-------------------------------------------------------------------------------------------------------------
+	// Asynchronous interceptors
+	//-------------------------------------------------------------------------------------------------------------
+	/**
+	 * Defines the buffer used for the events of the asynchronous interceptors ( see AsyncInterceptor ) <br>
+	 * Default values : 1024 events, DROP
+	 * 
+	 * @param bufferSize maximum number of events waiting for the background thread
+	 * @param overflowPolicy policy applied when the buffer is full
+	 */
+	public void defineAsyncInterceptors(int bufferSize, AsyncOverflowPolicy overflowPolicy) {
+		if ( bufferSize < 1 ) {
+			throw new IllegalArgumentException("Invalid buffer size " + bufferSize );
+		}
+		if ( null == overflowPolicy ) {
+			throw new IllegalArgumentException("AsyncOverflowPolicy is null");
+		}
+		_asyncBufferSize = bufferSize ;
+		_asyncOverflowPolicy = overflowPolicy ;
+	}
+	
+	/**
+	 * Returns the buffer size for the asynchronous interceptors events 
+	 * @return
+	 */
+	protected int getAsyncBufferSize() {
+		return _asyncBufferSize ;
+	}
+	
+	/**
+	 * Returns the overflow policy for the asynchronous interceptors events 
+	 * @return
+	 */
+	protected AsyncOverflowPolicy getAsyncOverflowPolicy() {
+		return _asyncOverflowPolicy ;
+	}
+	
+	//-------------------------------------------------------------------------------------------------------------
+	// Scopes
+	//-------------------------------------------------------------------------------------------------------------
+	/**
+	 * Defines the scope associated with the given scope annotation <br>
+	 * ( the annotation must be annotated with @javax.inject.Scope ) <br>
+	 * The thread scope is defined by default for @ThreadScoped, 
+	 * a UnitOfWorkScope must be defined for @UnitOfWorkScoped in order to enter and exit the units of work
+	 * 
+	 * @param scopeAnnotation
+	 * @param scope
+	 */
+	public void defineScope(Class<? extends Annotation> scopeAnnotation, ComponentScope scope) {
+		if ( null == scopeAnnotation ) {
+			throw new IllegalArgumentException("Scope annotation is null");
+		}
+		if ( null == scope ) {
+			throw new IllegalArgumentException("ComponentScope is null");
+		}
+		if ( ! scopeAnnotation.isAnnotationPresent(Scope.class) ) {
+			throw new IllegalArgumentException("'" + scopeAnnotation.getSimpleName() + "' is not a scope annotation");
+		}
+		if ( Singleton.class.equals(scopeAnnotation) ) {
+			throw new IllegalArgumentException("Cannot redefine the Singleton scope");
+		}
+		_scopes.put(scopeAnnotation, scope);
+	}
+	
+	/**
+	 * Returns the scopes for each scope annotation
+	 * @return
+	 */
+	protected HashMap<Class<? extends Annotation>, ComponentScope> getScopes() {
+		return new HashMap<Class<? extends Annotation>, ComponentScope>(_scopes) ;
+	}
 	
 }
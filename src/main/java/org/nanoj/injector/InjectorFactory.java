@@ -15,12 +15,16 @@
  */
 package org.nanoj.injector;
 
+import java.lang.annotation.Annotation;
 import java.util.HashMap;
 
 import javax.inject.Provider;
 
 import org.nanoj.injector.aop.InterceptorProvider;
+import org.nanoj.injector.dynaproxy.AsyncEventDispatcher;
 import org.nanoj.injector.impl.InjectorImpl;
+import org.nanoj.injector.scope.ComponentScope;
+import org.nanoj.injector.tools.ConventionPattern;
 
 public class InjectorFactory {
 
@@ -32,19 +36,56 @@ public class InjectorFactory {
 	 */
 	public final static Injector createInjector(String name, InjectorConfiguration configuration) {
 		
+		return newInjectorImpl(name, configuration) ;
+	}
+
+	/**
+	 * Creates a new 'injector' with a specific configuration, and builds it eagerly from the given root components <br>
+	 * The dependency graph of the root components is validated (missing implementations, 
+	 * constructors that cannot be determined, cycles), then the singletons are optionally created 
+	 * ( in parallel if a warm-up parallelism is defined in the configuration ). <br>
+	 * All the wiring errors are reported at creation time, and the first requests don't pay the components initialization.
+	 * @param name
+	 * @param configuration
+	 * @param rootComponents the components used by the application
+	 * @param preInstantiateSingletons true to create all the singletons of the graph 
+	 * @return
+	 * @throws InjectorException if the dependency graph is invalid
+	 */
+	public final static Injector createInjector(String name, InjectorConfiguration configuration, 
+			Class<?>[] rootComponents, boolean preInstantiateSingletons) {
+		
+		InjectorImpl injector = newInjectorImpl(name, configuration) ;
+		injector.build(rootComponents, preInstantiateSingletons, configuration.getWarmUpParallelism());
+		return injector ;
+	}
+	
+	private final static InjectorImpl newInjectorImpl(String name, InjectorConfiguration configuration) {
+		
 		//--- Get configuration elements 
 		
 		HashMap<Class<?>, Class<?>>     implementationsClasses  = configuration.getImplementationClasses();
 		 
 		HashMap<Class<?>, Provider<?>>  implementationProviders = configuration.getImplementationProviders();
 		
-		String[] implementationsConventions = configuration.getImplementationConventions() ;
+		ConventionPattern[] implementationsConventions = configuration.getImplementationConventionPatterns() ;
 		 
 		InterceptorProvider[] interceptorProviders = configuration.getInterceptorProviders();
 		
+		LoggingPolicy loggingPolicy = configuration.getLoggingPolicy();
+		
+		ProxyEngine proxyEngine = configuration.getProxyEngine();
+		
+		AsyncEventDispatcher asyncEventDispatcher = new AsyncEventDispatcher(name, 
+				configuration.getAsyncBufferSize(), configuration.getAsyncOverflowPolicy());
+		
+		HashMap<Class<? extends Annotation>, ComponentScope> scopes = configuration.getScopes();
+		
+		boolean partialComponentIndex = configuration.isPartialComponentIndex();
 		
 		//--- Create the injector factory with the configuration elements
-		Injector injector = new InjectorImpl(name, implementationsClasses, implementationsConventions, implementationProviders, interceptorProviders);
+		InjectorImpl injector = new InjectorImpl(name, implementationsClasses, implementationsConventions, implementationProviders, interceptorProviders, 
+				loggingPolicy, proxyEngine, asyncEventDispatcher, scopes, partialComponentIndex);
 		
 		return injector ;
 	}
@@ -75,7 +116,7 @@ public class InjectorFactory {
 ////		
 ////		
 ////		//--- Create the injector factory with the configuration elements
-////		Injector injector = new InjectorImpl(name, implementationsClasses, implementationsConventions, implementationProviders, interceptorProviders);
+////		InjectorImpl injector = new InjectorImpl(name, implementationsClasses, implementationsConventions, implementationProviders, interceptorProviders);
 //		
 //		return createInjector(name, configuration) ;
 //	}
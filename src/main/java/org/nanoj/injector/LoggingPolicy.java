@@ -0,0 +1,57 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector;
+
+/**
+ * Logging policy of an injector <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+public enum LoggingPolicy {
+
+	/**
+	 * No log at all
+	 */
+	OFF,
+
+	/**
+	 * Logs only the components lifecycle events ( e.g. component definition creation ) <br>
+	 * Nothing is logged (and no message is built) for each instance request or proxied call
+	 */
+	LIFECYCLE,
+
+	/**
+	 * Logs the lifecycle events plus each instance request and each proxied call ( for debugging purposes )
+	 */
+	TRACE ;
+
+	/**
+	 * Returns true if the lifecycle events must be logged
+	 * @return
+	 */
+	public boolean isLifecycleEnabled() {
+		return this != OFF ;
+	}
+
+	/**
+	 * Returns true if each instance request and each proxied call must be logged
+	 * @return
+	 */
+	public boolean isTraceEnabled() {
+		return this == TRACE ;
+	}
+}
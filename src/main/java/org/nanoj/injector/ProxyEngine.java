@@ -0,0 +1,39 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector;
+
+/**
+ * Engine used to create the proxies of the intercepted interface components <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+public enum ProxyEngine {
+
+	/**
+	 * Standard JDK dynamic proxies ( java.lang.reflect.Proxy with an InvocationHandler )
+	 */
+	JDK,
+
+	/**
+	 * Proxy class generated (bytecode) for each component interface <br>
+	 * Each proxy method calls the target method directly, without reflection <br>
+	 * Requires ASM ( org.ow2.asm:asm ) in the classpath and a public interface,
+	 * the JDK proxies are used as fallback if not possible
+	 */
+	GENERATED ;
+
+}
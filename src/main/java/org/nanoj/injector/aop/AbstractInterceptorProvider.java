@@ -17,11 +17,62 @@ package org.nanoj.injector.aop;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.nanoj.injector.InjectorException;
 
 public abstract class AbstractInterceptorProvider  {
 
+	/**
+	 * Cached value for "no annotation"
+	 */
+	private final static Object NO_ANNOTATION = new Object();
+	
+	/**
+	 * Annotations found (or not found) in the implementation classes, shared by all the providers <br>
+	 * One map for each implementation class ( released with the class ), key : interface method + annotation class
+	 */
+	private final static ClassValue<ConcurrentHashMap<AnnotationKey, Object>> annotationsCache = 
+			new ClassValue<ConcurrentHashMap<AnnotationKey, Object>>() {
+		@Override
+		protected ConcurrentHashMap<AnnotationKey, Object> computeValue(Class<?> implementationClass) {
+			return new ConcurrentHashMap<AnnotationKey, Object>();
+		}
+	};
+	
+	/**
+	 * Key of the annotations cache ( for an implementation class )
+	 */
+	private final static class AnnotationKey {
+		private final Method   interfaceMethod ;
+		private final Class<?> annotationClass ;
+		private final int      hash ;
+		
+		AnnotationKey(Method interfaceMethod, Class<?> annotationClass) {
+			this.interfaceMethod = interfaceMethod ;
+			this.annotationClass = annotationClass ;
+			this.hash = 31 * interfaceMethod.hashCode() + annotationClass.hashCode() ;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash ;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if ( this == obj ) {
+				return true ;
+			}
+			if ( obj instanceof AnnotationKey ) {
+				AnnotationKey other = (AnnotationKey) obj ;
+				return annotationClass == other.annotationClass 
+						&& interfaceMethod.equals(other.interfaceMethod) ;
+			}
+			return false ;
+		}
+	}
+
 	protected <T extends Annotation> T  getAnnotationFromInterface(Class<T> annotationClass, Method interfaceMethod ) {
 		Class<?> c = interfaceMethod.getDeclaringClass();
 		if ( c.isInterface() ) {
@@ -36,6 +87,26 @@ public abstract class AbstractInterceptorProvider  {
 		
 		Class<?> implementationClass = implementationInstance.getClass() ;
 		
+		//--- Already searched ?
+		ConcurrentHashMap<AnnotationKey, Object> classAnnotations = annotationsCache.get(implementationClass);
+		AnnotationKey key = new AnnotationKey(interfaceMethod, annotationClass);
+		Object cached = classAnnotations.get(key);
+		if ( cached != null ) {
+			return ( cached == NO_ANNOTATION ? null : annotationClass.cast(cached) ) ;
+		}
+		
+		T annotation = getImplementationMethod(implementationClass, interfaceMethod).getAnnotation(annotationClass) ;
+		classAnnotations.put(key, annotation != null ? annotation : NO_ANNOTATION );
+		return annotation ;
+	}
+
+	/**
+	 * Returns the implementation method of the given interface method ( reflection, called only if not in the cache )
+	 * @param implementationClass
+	 * @param interfaceMethod
+	 * @return
+	 */
+	Method getImplementationMethod(Class<?> implementationClass, Method interfaceMethod) {
 		String errMessage = "Cannot get method '" + interfaceMethod.getName() 
 				+ "' from implementation class '" + implementationClass.getSimpleName() + "'";
 		
@@ -47,8 +118,7 @@ public abstract class AbstractInterceptorProvider  {
 		} catch (NoSuchMethodException e) {
 			throw new InjectorException(errMessage, e);
 		}
-		
-		return implementationMethod.getAnnotation(annotationClass) ;
+		return implementationMethod ;
 	}
 
 	protected <T extends Annotation> T  getAnnotation(Class<T> annotationClass, Method interfaceMethod, Object implementationInstance) {
@@ -0,0 +1,44 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * Base class for the "around" interceptors returned by an InterceptorProvider <br>
+ * <br>
+ * The proxies call only 'invoke' : the Interceptor events are not used for this kind of interceptor <br>
+ * ( the classic Interceptors are automatically wrapped in the same chain of calls )
+ *
+ * @author Laurent Guerin
+ *
+ */
+public abstract class AbstractMethodInterceptor implements Interceptor, MethodInterceptor {
+
+	public abstract Object invoke(MethodInvocation invocation) throws Throwable ;
+
+	public final void beforeCall(Object instance, Method method, Object[] args) {
+		// Not used : see invoke
+	}
+
+	public final void afterCall(Object instance, Method method, Object[] args, Object result) {
+		// Not used : see invoke
+	}
+
+	public final void onError(Object instance, Method method, Object[] args, Exception exception) {
+		// Not used : see invoke
+	}
+}
@@ -0,0 +1,31 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.aop;
+
+/**
+ * Marker interface for the interceptors notified asynchronously ( e.g. metrics, audit ) <br>
+ * <br>
+ * The "afterCall" and "onError" events are queued in a bounded buffer and delivered by a background thread, <br>
+ * in the calls order ( see InjectorConfiguration.defineAsyncInterceptors ) <br>
+ * The "beforeCall" event is not used for this kind of interceptor <br>
+ * NB : the arguments and the result are given as is, they must not be modified after the call
+ *
+ * @author Laurent Guerin
+ *
+ */
+public interface AsyncInterceptor extends Interceptor {
+
+}
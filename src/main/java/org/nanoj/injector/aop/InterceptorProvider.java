@@ -30,9 +30,10 @@ public interface InterceptorProvider {
 	/**
 	 * Returns the interceptor to be used for the given method, or null if none.<br>
 	 * <br>
-	 * Called before each method invocation by the dynamic proxy handler.<br>
-	 * The provider is responsible to create a new instance if necessary <br>
-	 * in order to provide a thread safe interceptor.<br> 
+	 * Called by the dynamic proxy handler at the first invocation of each method of a component implementation.<br>
+	 * The result is cached and reused for all the next calls (by all the threads) : the returned interceptor <br>
+	 * must be thread safe, and the result must not depend on the component instance state. <br>
+	 * A provider implementing UncachedInterceptorProvider is called before each method invocation.<br> 
 	 * 
 	 * @param interfaceMethod the invoked method
 	 * @param componentInstance the targeted component instance
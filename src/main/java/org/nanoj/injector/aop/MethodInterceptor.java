@@ -0,0 +1,37 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.aop;
+
+/**
+ * Interceptor wrapping a method call ( "around" interceptor ) <br>
+ * <br>
+ * The interceptor decides if and when the call goes on ( see MethodInvocation.proceed ) <br>
+ * and can replace the result, for example to return a cached value without calling the component <br>
+ * NB : an InterceptorProvider returns it as an Interceptor, see AbstractMethodInterceptor
+ *
+ * @author Laurent Guerin
+ *
+ */
+public interface MethodInterceptor {
+
+	/**
+	 * Wraps the given method call
+	 * @param invocation the method call
+	 * @return the result to be returned to the caller
+	 * @throws Throwable
+	 */
+	Object invoke(MethodInvocation invocation) throws Throwable ;
+}
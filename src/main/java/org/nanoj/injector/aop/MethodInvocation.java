@@ -0,0 +1,53 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * A proxied method call, given to each MethodInterceptor of the chain <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+public interface MethodInvocation {
+
+	/**
+	 * Returns the targeted component instance
+	 * @return
+	 */
+	Object getThis() ;
+
+	/**
+	 * Returns the invoked interface method
+	 * @return
+	 */
+	Method getMethod() ;
+
+	/**
+	 * Returns the call arguments ( can be modified before 'proceed' )
+	 * @return
+	 */
+	Object[] getArguments() ;
+
+	/**
+	 * Calls the next interceptor of the chain, or the component method after the last one <br>
+	 * Can be called several times ( e.g. retry ) or not at all ( e.g. cached result )
+	 * @return the call result (boxed if primitive, null if void)
+	 * @throws Throwable the exception thrown by the component method or by an interceptor
+	 */
+	Object proceed() throws Throwable ;
+}
@@ -0,0 +1,74 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * Interceptor provider associated with a PointCut ( see InjectorConfiguration.defineInterceptorProvider ) <br>
+ * <br>
+ * The container evaluates the PointCut once for each method and implementation class : <br>
+ * the provider is never requested for the methods rejected by the PointCut <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+public final class PointCutInterceptorProvider implements InterceptorProvider {
+
+	private final InterceptorProvider interceptorProvider ;
+
+	private final PointCut            pointCut ;
+
+	/**
+	 * Constructor
+	 * @param interceptorProvider the provider to be used for the methods matched by the PointCut
+	 * @param pointCut
+	 */
+	public PointCutInterceptorProvider(InterceptorProvider interceptorProvider, PointCut pointCut) {
+		super();
+		if ( null == interceptorProvider ) {
+			throw new IllegalArgumentException("InterceptorProvider is null");
+		}
+		if ( null == pointCut ) {
+			throw new IllegalArgumentException("PointCut is null");
+		}
+		this.interceptorProvider = interceptorProvider ;
+		this.pointCut = pointCut ;
+	}
+
+	/**
+	 * Returns the provider to be used for the methods matched by the PointCut
+	 * @return
+	 */
+	public InterceptorProvider getInterceptorProvider() {
+		return interceptorProvider ;
+	}
+
+	/**
+	 * Returns the PointCut 
+	 * @return
+	 */
+	public PointCut getPointCut() {
+		return pointCut ;
+	}
+
+	public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+		if ( pointCut.callInterceptor(interfaceMethod, componentInstance) ) {
+			return interceptorProvider.getInterceptor(interfaceMethod, componentInstance);
+		}
+		return null ;
+	}
+}
@@ -0,0 +1,30 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.aop;
+
+/**
+ * Marker interface for the interceptor providers that opt out of the interceptors caching <br>
+ * <br>
+ * By default the interceptor returned by a provider is cached for each method of each component implementation <br>
+ * and reused for all the calls. A provider implementing this interface is requested before each method invocation, <br>
+ * for instance if it returns a new interceptor for each call or if its choice depends on the component instance state.
+ *
+ * @author Laurent Guerin
+ *
+ */
+public interface UncachedInterceptorProvider extends InterceptorProvider {
+
+}
@@ -0,0 +1,320 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.nanoj.injector.AsyncOverflowPolicy;
+import org.nanoj.injector.aop.AsyncInterceptor;
+import org.nanoj.injector.impl.InjectorImpl;
+import org.nanoj.util.ConsoleLoggerProvider;
+
+/**
+ * Dispatcher of the asynchronous interceptors events ( one for each injector ) <br>
+ * <br>
+ * The calling threads publish the events in a lock-free bounded ring buffer ( multiple producers ), <br>
+ * a single background daemon thread ( started with the first event ) delivers them to the interceptors <br>
+ * When the buffer is full the event is dropped or the caller waits, depending on the overflow policy <br>
+ * <br>
+ * The background thread exits when it stays idle ( restarted with the next event ) 
+ * and after 'shutdown' ( the events published after the shutdown are dropped )
+ *
+ * @author Laurent GUERIN
+ *
+ */
+public final class AsyncEventDispatcher {
+
+	private final static Logger logger = ConsoleLoggerProvider.getLogger(InjectorImpl.class, Level.INFO);
+
+	/**
+	 * Maximum number of events delivered before checking the waiting producers
+	 */
+	private final static int    BATCH_SIZE = 256 ;
+
+	/**
+	 * Maximum waiting time of the idle drainer thread ( in nanoseconds )
+	 */
+	private final static long   IDLE_PARK_NANOS = 10000000L ; // 10 ms
+
+	/**
+	 * Idle time after which the drainer thread exits ( in nanoseconds )
+	 */
+	private final static long   IDLE_EXIT_NANOS = 1000000000L ; // 1 s
+
+	private final String                          name ;
+
+	private final AsyncOverflowPolicy             overflowPolicy ;
+
+	/**
+	 * The ring buffer ( a null slot is free or not yet written by its producer )
+	 */
+	private final AtomicReferenceArray<AsyncEvent> buffer ;
+
+	private final int                             mask ;
+
+	/**
+	 * Next position to be claimed by a producer
+	 */
+	private final AtomicLong                      tail = new AtomicLong();
+
+	/**
+	 * Next position to be read by the drainer thread ( written only by the drainer thread )
+	 */
+	private volatile long                         head = 0 ;
+
+	private final AtomicLong                      droppedEvents = new AtomicLong();
+
+	private final AtomicBoolean                   started = new AtomicBoolean(false);
+
+	private volatile Thread                       drainerThread = null ;
+
+	private volatile boolean                      drainerWaiting = false ;
+
+	private volatile boolean                      shutdown = false ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param name the injector name ( used for the thread name )
+	 * @param bufferSize the buffer size ( rounded to the next power of 2 )
+	 * @param overflowPolicy
+	 */
+	public AsyncEventDispatcher(String name, int bufferSize, AsyncOverflowPolicy overflowPolicy) {
+		super();
+		if ( bufferSize < 1 ) {
+			throw new IllegalArgumentException("Invalid buffer size " + bufferSize );
+		}
+		if ( null == overflowPolicy ) {
+			throw new IllegalArgumentException("AsyncOverflowPolicy is null");
+		}
+		int capacity = Integer.highestOneBit(bufferSize) ;
+		if ( capacity < bufferSize ) {
+			capacity = capacity << 1 ;
+		}
+		this.name = name ;
+		this.overflowPolicy = overflowPolicy ;
+		this.buffer = new AtomicReferenceArray<AsyncEvent>(capacity);
+		this.mask = capacity - 1 ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the number of events dropped because the buffer was full
+	 * @return
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Stops the delivery : the events already published are delivered, then the background thread exits <br>
+	 * ( the events published after the shutdown are dropped )
+	 */
+	public void shutdown() {
+		shutdown = true ;
+		wakeUpDrainer();
+	}
+
+	/**
+	 * Returns true if the background thread is running ( or starting )
+	 * @return
+	 */
+	public boolean isDrainerRunning() {
+		return started.get();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Publishes an "afterCall" event
+	 */
+	void publishAfterCall(AsyncInterceptor interceptor, Object instance, Method method, Object[] args, Object result) {
+		publish(new AsyncEvent(interceptor, instance, method, args, result, null));
+	}
+
+	/**
+	 * Publishes an "onError" event
+	 */
+	void publishOnError(AsyncInterceptor interceptor, Object instance, Method method, Object[] args, Exception exception) {
+		publish(new AsyncEvent(interceptor, instance, method, args, null, exception));
+	}
+
+	private void publish(AsyncEvent event) {
+		if ( shutdown ) {
+			droppedEvents.incrementAndGet();
+			return ;
+		}
+		while ( ! offer(event) ) {
+			if ( overflowPolicy == AsyncOverflowPolicy.DROP || shutdown ) {
+				droppedEvents.incrementAndGet();
+				return ;
+			}
+			//--- BLOCK : wait for the drainer thread ( restarted if not running )
+			if ( ! started.get() ) {
+				startDrainer();
+			}
+			wakeUpDrainer();
+			LockSupport.parkNanos(1000L);
+		}
+		//--- Started after the offer : an exiting drainer thread always sees this event ( see drain )
+		if ( ! started.get() ) {
+			startDrainer();
+		}
+		else if ( drainerWaiting ) {
+			wakeUpDrainer();
+		}
+	}
+
+	/**
+	 * Puts the event in the buffer if not full ( lock-free, multiple producers )
+	 * @param event
+	 * @return
+	 */
+	private boolean offer(AsyncEvent event) {
+		while ( true ) {
+			long position = tail.get();
+			if ( position - head >= buffer.length() ) {
+				return false ; // Full
+			}
+			if ( tail.compareAndSet(position, position + 1) ) {
+				buffer.lazySet((int) position & mask, event);
+				return true ;
+			}
+		}
+	}
+
+	/**
+	 * Removes the next event from the buffer ( drainer thread only )
+	 * @return the event or null if none
+	 */
+	private AsyncEvent poll() {
+		long position = head ;
+		int index = (int) position & mask ;
+		AsyncEvent event = buffer.get(index);
+		if ( event != null ) {
+			buffer.lazySet(index, null);
+			head = position + 1 ; // Frees the slot for the producers
+		}
+		return event ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	private void startDrainer() {
+		if ( started.compareAndSet(false, true) ) {
+			Thread thread = new Thread(new Runnable() {
+				public void run() {
+					drain();
+				}
+			}, "nanoj-async-interceptors-" + name );
+			thread.setDaemon(true);
+			drainerThread = thread ;
+			thread.start();
+		}
+	}
+
+	private void wakeUpDrainer() {
+		Thread thread = drainerThread ;
+		if ( thread != null ) {
+			drainerWaiting = false ;
+			LockSupport.unpark(thread);
+		}
+	}
+
+	private void drain() {
+		boolean exited = false ;
+		try {
+			long idleSince = System.nanoTime();
+			while ( true ) {
+				int count = 0 ;
+				AsyncEvent event ;
+				while ( count < BATCH_SIZE && ( event = poll() ) != null ) {
+					deliver(event);
+					count++ ;
+				}
+				if ( count > 0 ) {
+					idleSince = System.nanoTime();
+				}
+				else if ( shutdown || System.nanoTime() - idleSince > IDLE_EXIT_NANOS ) {
+					//--- Nothing to deliver ( shutdown or idle ) : exit, except if an event has been claimed meanwhile 
+					started.set(false);
+					if ( tail.get() == head || ! started.compareAndSet(false, true) ) {
+						exited = true ;
+						return ;
+					}
+					idleSince = System.nanoTime();
+				}
+				else {
+					//--- Nothing to deliver : wait for a producer ( or a timeout )
+					drainerWaiting = true ;
+					if ( buffer.get((int) head & mask) == null ) {
+						LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+					}
+					drainerWaiting = false ;
+				}
+			}
+		} finally {
+			if ( drainerThread == Thread.currentThread() ) {
+				drainerThread = null ;
+			}
+			if ( ! exited ) {
+				//--- Unexpected end : the next event starts a new drainer thread
+				started.set(false);
+			}
+		}
+	}
+
+	private void deliver(AsyncEvent event) {
+		try {
+			if ( event.exception != null ) {
+				event.interceptor.onError(event.instance, event.method, event.args, event.exception);
+			}
+			else {
+				event.interceptor.afterCall(event.instance, event.method, event.args, event.result);
+			}
+		} catch (Throwable e) {
+			//--- Never stop the drainer thread ( even for an Error thrown by an interceptor )
+			logger.log(Level.WARNING, "Async interceptor error / " + event.method.getName(), e);
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Event to be delivered to an asynchronous interceptor
+	 */
+	private final static class AsyncEvent {
+		final AsyncInterceptor interceptor ;
+		final Object           instance ;
+		final Method           method ;
+		final Object[]         args ;
+		final Object           result ;
+		final Exception        exception ;
+
+		AsyncEvent(AsyncInterceptor interceptor, Object instance, Method method, Object[] args, Object result, Exception exception) {
+			this.interceptor = interceptor ;
+			this.instance = instance ;
+			this.method = method ;
+			this.args = args ;
+			this.result = result ;
+			this.exception = exception ;
+		}
+	}
+}
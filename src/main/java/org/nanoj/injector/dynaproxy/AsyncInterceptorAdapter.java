@@ -0,0 +1,51 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import org.nanoj.injector.aop.AsyncInterceptor;
+import org.nanoj.injector.aop.MethodInterceptor;
+import org.nanoj.injector.aop.MethodInvocation;
+
+/**
+ * Adapter publishing the events of an AsyncInterceptor instead of calling it ( see AsyncEventDispatcher )
+ *
+ * @author Laurent GUERIN
+ *
+ */
+final class AsyncInterceptorAdapter implements MethodInterceptor {
+
+	private final AsyncInterceptor     interceptor ;
+
+	private final AsyncEventDispatcher dispatcher ;
+
+	AsyncInterceptorAdapter(AsyncInterceptor interceptor, AsyncEventDispatcher dispatcher) {
+		super();
+		this.interceptor = interceptor ;
+		this.dispatcher = dispatcher ;
+	}
+
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		Object result ;
+		try {
+			result = invocation.proceed();
+		} catch (Exception e) {
+			dispatcher.publishOnError(interceptor, invocation.getThis(), invocation.getMethod(), invocation.getArguments(), e);
+			throw e ;
+		}
+		dispatcher.publishAfterCall(interceptor, invocation.getThis(), invocation.getMethod(), invocation.getArguments(), result);
+		return result ;
+	}
+}
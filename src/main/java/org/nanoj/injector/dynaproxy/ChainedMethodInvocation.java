@@ -0,0 +1,123 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.reflect.Method;
+
+import org.nanoj.injector.aop.MethodInterceptor;
+import org.nanoj.injector.aop.MethodInvocation;
+
+/**
+ * Method invocation going through a precompiled chain of interceptors, then calling the component method <br>
+ * <br>
+ * A single small object for each intercepted call ( the chain and the target invoker are shared, only the position changes ) <br>
+ * The same final class is used by all the proxies ( the end of the chain is given by a TargetInvoker ) <br>
+ * NB : not thread safe, used only by the calling thread
+ *
+ * @author Laurent GUERIN
+ *
+ */
+final class ChainedMethodInvocation implements MethodInvocation {
+
+	/**
+	 * Call of the component method at the end of the chain ( one instance for each kind of proxy )
+	 */
+	interface TargetInvoker {
+
+		/**
+		 * Calls the component method
+		 * @param target the component instance
+		 * @param method the interface method
+		 * @param methodIndex the method index ( for the generated proxies )
+		 * @param args the call arguments
+		 * @return the result (boxed if primitive, null if void)
+		 * @throws Throwable the exception thrown by the component method
+		 */
+		Object invokeTarget(Object target, Method method, int methodIndex, Object[] args) throws Throwable ;
+	}
+
+	private final MethodInterceptor[] chain ;
+
+	private final TargetInvoker       targetInvoker ;
+
+	private final Object              target ;
+
+	private final Method              method ;
+
+	private final int                 methodIndex ;
+
+	private final Object[]            args ;
+
+	/**
+	 * Position of the next interceptor to be called
+	 */
+	private int                       position = 0 ;
+
+	/**
+	 * The last exception thrown by the component method ( null if none )
+	 */
+	private Throwable                 targetException = null ;
+
+	ChainedMethodInvocation(MethodInterceptor[] chain, TargetInvoker targetInvoker, Object target, Method method, int methodIndex, Object[] args) {
+		super();
+		this.chain = chain ;
+		this.targetInvoker = targetInvoker ;
+		this.target = target ;
+		this.method = method ;
+		this.methodIndex = methodIndex ;
+		this.args = args ;
+	}
+
+	public Object getThis() {
+		return target ;
+	}
+
+	public Method getMethod() {
+		return method ;
+	}
+
+	public Object[] getArguments() {
+		return args ;
+	}
+
+	public Object proceed() throws Throwable {
+		if ( position < chain.length ) {
+			MethodInterceptor interceptor = chain[position++];
+			try {
+				return interceptor.invoke(this);
+			} finally {
+				//--- Restored for a new call of 'proceed' by the same interceptor
+				position-- ;
+			}
+		}
+		try {
+			return targetInvoker.invokeTarget(target, method, methodIndex, args);
+		} catch (Throwable e) {
+			targetException = e ;
+			throw e ;
+		}
+	}
+
+	/**
+	 * Returns true if the given exception has been thrown by the component method <br>
+	 * ( and not by an interceptor )
+	 * @param e
+	 * @return
+	 */
+	boolean isTargetException(Throwable e) {
+		return e == targetException ;
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.nanoj.injector.aop.MethodInterceptor;
+import org.nanoj.injector.impl.InjectorImpl;
+import org.nanoj.util.ConsoleLoggerProvider;
+
+/**
+ * Super class of all the generated proxies ( see GeneratedProxyFactory ) <br>
+ * <br>
+ * Each generated method 'N' of the component interface does : <br>
+ * . no interceptor for the method : direct call of the target method ( no reflection, no arguments boxing ) <br>
+ * . interceptors : arguments array creation, then 'intercept' that goes through the interceptors chain
+ * and ends with 'invokeTarget' (generated switch with a direct call of the target method) <br>
+ *
+ * The generated class also implements 'hashCode', 'equals' and 'toString' ( as the interface methods ) <br>
+ * NB : public and protected members only ( the generated classes are defined by another class loader )
+ *
+ * @author Laurent GUERIN
+ *
+ */
+public abstract class GeneratedProxy {
+
+	private final static Logger logger = ConsoleLoggerProvider.getLogger(InjectorImpl.class, Level.INFO);
+
+	/**
+	 * The component instance
+	 */
+	protected final Object                   target ;
+
+	/**
+	 * The interceptors dispatch table ( shared by all the proxies of the same component )
+	 */
+	private final InterceptorDispatchTable   dispatchTable ;
+
+	/**
+	 * The interface methods, in the generated methods order ( shared by all the proxies of the same component )
+	 */
+	private final Method[]                   methods ;
+
+	private final boolean                    traceLogEnabled ;
+
+	/**
+	 * End of the interceptors chain : direct call of the target method with 'invokeTarget'
+	 */
+	private final ChainedMethodInvocation.TargetInvoker targetInvoker = new ChainedMethodInvocation.TargetInvoker() {
+		public Object invokeTarget(Object target, Method method, int methodIndex, Object[] args) throws Throwable {
+			return GeneratedProxy.this.invokeTarget(methodIndex, args);
+		}
+	};
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param target
+	 * @param dispatchTable
+	 * @param methods
+	 * @param traceLogEnabled
+	 */
+	protected GeneratedProxy(Object target, InterceptorDispatchTable dispatchTable, Method[] methods, boolean traceLogEnabled) {
+		super();
+		this.target = target ;
+		this.dispatchTable = dispatchTable ;
+		this.methods = methods ;
+		this.traceLogEnabled = traceLogEnabled ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the chain of interceptors for the given method, or null if none
+	 * @param methodIndex the method index
+	 * @return
+	 */
+	protected final MethodInterceptor[] interceptors(int methodIndex) {
+		return dispatchTable.getInterceptorChain(methods[methodIndex], target);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Calls the given method through the chain of interceptors
+	 * @param chain the interceptors chain (not null)
+	 * @param methodIndex the method index
+	 * @param args the call arguments
+	 * @return the result (boxed if primitive)
+	 * @throws Throwable the exception thrown by the target method or by an interceptor
+	 */
+	protected final Object intercept(MethodInterceptor[] chain, int methodIndex, Object[] args) throws Throwable {
+		Method method = methods[methodIndex];
+
+		if ( traceLogEnabled ) {
+			logger.info("===== [ PROXY ] : Before call / " + target.getClass().getSimpleName() + " " + method.getName() );
+		}
+		Object result ;
+		try {
+			//--- The last step is a direct call of the target method
+			result = new ChainedMethodInvocation(chain, targetInvoker, target, method, methodIndex, args).proceed();
+		} catch (Throwable e) {
+			//--- Call error
+			if ( traceLogEnabled ) {
+				logger.info("===== [ PROXY ] : Call error / " + target.getClass().getSimpleName() + " " + method.getName() );
+			}
+			throw e ;
+		}
+
+		//--- After Call
+		if ( traceLogEnabled ) {
+			logger.info("===== [ PROXY ] : After call / " + target.getClass().getSimpleName() + " " + method.getName() );
+		}
+		return result ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Calls the given target method with the given arguments ( generated )
+	 * @param methodIndex
+	 * @param args
+	 * @return the result (boxed if primitive, null if void)
+	 * @throws Throwable the exception thrown by the target method
+	 */
+	protected abstract Object invokeTarget(int methodIndex, Object[] args) throws Throwable ;
+}
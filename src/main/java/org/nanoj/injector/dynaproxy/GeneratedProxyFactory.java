@@ -0,0 +1,212 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.LoggingPolicy;
+
+/**
+ * Factory for the generated proxies of a component interface ( see ProxyEngine.GENERATED ) <br>
+ * <br>
+ * The proxy class is generated once ( at the creation of the factory ) <br>
+ * and the proxy instances are created with a constructor MethodHandle <br>
+ * <br>
+ * Same behavior as the JDK proxies : 'hashCode', 'equals' and 'toString' go through the interceptors <br>
+ * ( with the java.lang.Object methods ) and an undeclared checked exception is thrown as an UndeclaredThrowableException 
+ *
+ * @author Laurent GUERIN
+ *
+ */
+public final class GeneratedProxyFactory implements ProxyFactory {
+
+	private final static boolean ASM_AVAILABLE = isAsmAvailable() ;
+
+	private final static MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class,
+			Object.class, InterceptorDispatchTable.class, Method[].class, boolean.class);
+
+	private final static MethodType GENERIC_TYPE = MethodType.methodType(Object.class,
+			Object.class, InterceptorDispatchTable.class, Method[].class, boolean.class);
+
+	/**
+	 * The java.lang.Object methods implemented by the proxies ( as java.lang.reflect.Proxy )
+	 */
+	private final static Method[] OBJECT_METHODS = getObjectMethods() ;
+
+	private final Class<?>      interfaceClass ;
+
+	private final Method[]      methods ;
+
+	private final MethodHandle  constructorHandle ;
+
+	//-----------------------------------------------------------------------------------------
+	private static boolean isAsmAvailable() {
+		try {
+			Class.forName("org.objectweb.asm.ClassWriter", false, GeneratedProxyFactory.class.getClassLoader());
+			return true ;
+		} catch (ClassNotFoundException e) {
+			return false ;
+		} catch (LinkageError e) {
+			return false ;
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	private static Method[] getObjectMethods() {
+		try {
+			return new Method[] { 
+					Object.class.getMethod("hashCode"), 
+					Object.class.getMethod("equals", Object.class), 
+					Object.class.getMethod("toString") };
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("java.lang.Object method not found", e);
+		}
+	}
+
+	/**
+	 * Returns true if the given method has the signature of a java.lang.Object method implemented by the proxies 
+	 * @param method
+	 * @return
+	 */
+	private static boolean isObjectMethod(Method method) {
+		for ( Method objectMethod : OBJECT_METHODS ) {
+			if ( objectMethod.getName().equals(method.getName()) 
+					&& Arrays.equals(objectMethod.getParameterTypes(), method.getParameterTypes()) ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if a proxy class can be generated for the given interface <br>
+	 * ( ASM available, public interface using only public types, no conflicting methods )
+	 * @param interfaceClass
+	 * @return
+	 */
+	public static boolean isSupported(Class<?> interfaceClass) {
+		return ASM_AVAILABLE && interfaceClass.isInterface() && getProxiedMethods(interfaceClass) != null ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the methods to be implemented by the proxy class, or null if not supported <br>
+	 * ( the interface methods, then the java.lang.Object methods )
+	 * @param interfaceClass
+	 * @return
+	 */
+	private static Method[] getProxiedMethods(Class<?> interfaceClass) {
+		if ( ! isPublicType(interfaceClass) ) {
+			return null ;
+		}
+		Map<String, Method> methods = new LinkedHashMap<String, Method>();
+		for ( Method method : interfaceClass.getMethods() ) {
+			if ( Modifier.isStatic(method.getModifiers()) || isObjectMethod(method) ) {
+				continue ;
+			}
+			String key = method.getName() + Arrays.toString(method.getParameterTypes());
+			Method existing = methods.get(key);
+			if ( existing == null ) {
+				methods.put(key, method);
+			}
+			else if ( existing.getReturnType() != method.getReturnType() ) {
+				//--- Same signature with different return types : not supported ( bridge methods required )
+				return null ;
+			}
+		}
+		for ( Method method : methods.values() ) {
+			if ( ! isPublicType(method.getReturnType()) ) {
+				return null ;
+			}
+			for ( Class<?> type : method.getParameterTypes() ) {
+				if ( ! isPublicType(type) ) {
+					return null ;
+				}
+			}
+		}
+		for ( Method method : OBJECT_METHODS ) {
+			methods.put(method.getName() + Arrays.toString(method.getParameterTypes()), method);
+		}
+		return methods.values().toArray(new Method[methods.size()]);
+	}
+
+	/**
+	 * Returns true if the given type can be used from the generated class ( another package )
+	 * @param type
+	 * @return
+	 */
+	private static boolean isPublicType(Class<?> type) {
+		while ( type.isArray() ) {
+			type = type.getComponentType();
+		}
+		if ( type.isPrimitive() ) {
+			return true ;
+		}
+		for ( Class<?> c = type ; c != null ; c = c.getEnclosingClass() ) {
+			if ( ! Modifier.isPublic(c.getModifiers()) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor : generates the proxy class for the given interface
+	 * @param interfaceClass the component interface ( must be supported, see isSupported )
+	 */
+	public GeneratedProxyFactory(Class<?> interfaceClass) {
+		super();
+		this.interfaceClass = interfaceClass ;
+		this.methods = getProxiedMethods(interfaceClass);
+		if ( ! ASM_AVAILABLE || this.methods == null ) {
+			throw new InjectorException("Cannot generate proxy class for " + interfaceClass.getName() );
+		}
+		Class<?> proxyClass = ProxyClassGenerator.generateProxyClass(interfaceClass, methods);
+		try {
+			this.constructorHandle = MethodHandles.publicLookup().findConstructor(proxyClass, CONSTRUCTOR_TYPE).asType(GENERIC_TYPE);
+		} catch (NoSuchMethodException e) {
+			throw new InjectorException("Cannot get proxy constructor for " + interfaceClass.getName(), e );
+		} catch (IllegalAccessException e) {
+			throw new InjectorException("Cannot get proxy constructor for " + interfaceClass.getName(), e );
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	public Class<?> getInterfaceClass() {
+		return interfaceClass ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	public Object newProxy(Object componentInstance, InterceptorDispatchTable dispatchTable, LoggingPolicy loggingPolicy) {
+		try {
+			return (Object) constructorHandle.invokeExact(componentInstance, dispatchTable, methods, loggingPolicy.isTraceEnabled());
+		} catch (Error e) {
+			throw e ;
+		} catch (Throwable e) {
+			throw new InjectorException("Cannot create proxy for " + interfaceClass.getName(), e );
+		}
+	}
+}
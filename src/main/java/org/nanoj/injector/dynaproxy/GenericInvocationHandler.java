@@ -17,14 +17,14 @@ package org.nanoj.injector.dynaproxy;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.LinkedList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.nanoj.injector.aop.Interceptor;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.aop.MethodInterceptor;
 import org.nanoj.injector.aop.InterceptorProvider;
 import org.nanoj.injector.impl.InjectorImpl;
-import org.nanoj.injector.tools.MethodInvoker;
+import org.nanoj.injector.tools.MethodHandleInvoker;
 import org.nanoj.util.ConsoleLoggerProvider;
 
 /**
@@ -41,13 +41,28 @@ public class GenericInvocationHandler implements InvocationHandler {
 //	private static final BasicLogger logger = BasicLogger.getLogger(GenericInvocationHandler.class);
 	private final static Logger logger = ConsoleLoggerProvider.getLogger(InjectorImpl.class, Level.INFO); 
 
-	private final static Interceptor[] VOID_INTERCEPTOR_ARRAY = new Interceptor[0];
-    
+	/**
+	 * End of the interceptors chain : call of the component method with a method handle
+	 */
+	private final static ChainedMethodInvocation.TargetInvoker TARGET_INVOKER = new ChainedMethodInvocation.TargetInvoker() {
+		public Object invokeTarget(Object target, Method method, int methodIndex, Object[] args) throws Throwable {
+			return MethodHandleInvoker.invoke(target, method, args) ;
+		}
+	};
+
 	//-----------------------------------------------------------------------------------------
 	
-	private final Object                 componentInstance ;
+	private final Object                   componentInstance ;
 
-	private final InterceptorProvider[]  interceptorProviders ;
+	/**
+	 * The interceptors dispatch table ( shared by all the proxies of the same component )
+	 */
+	private final InterceptorDispatchTable dispatchTable ;
+	
+	/**
+	 * Trace flag : if false nothing is logged (and no message is built) for each proxied call
+	 */
+	private final boolean                  traceLogEnabled ;
 	
 	//-----------------------------------------------------------------------------------------
 
@@ -57,12 +72,38 @@ public class GenericInvocationHandler implements InvocationHandler {
 	 * @param interceptorProviders
 	 */
 	public GenericInvocationHandler(Object componentInstance, InterceptorProvider[] interceptorProviders) {
+		this(componentInstance, interceptorProviders, LoggingPolicy.LIFECYCLE);
+	}
+
+	/**
+	 * Constructor
+	 * @param componentInstance
+	 * @param interceptorProviders
+	 * @param loggingPolicy
+	 */
+	public GenericInvocationHandler(Object componentInstance, InterceptorProvider[] interceptorProviders, LoggingPolicy loggingPolicy) {
+		this(componentInstance, 
+				new InterceptorDispatchTable(null, componentInstance != null ? componentInstance.getClass() : null, interceptorProviders), 
+				loggingPolicy);
+	}
+
+	/**
+	 * Constructor
+	 * @param componentInstance
+	 * @param dispatchTable the dispatch table shared by all the proxies of the component
+	 * @param loggingPolicy
+	 */
+	public GenericInvocationHandler(Object componentInstance, InterceptorDispatchTable dispatchTable, LoggingPolicy loggingPolicy) {
 		super();
 		if ( null == componentInstance ) {
 			throw new IllegalArgumentException("Component instance is null");
 		}
+		if ( null == dispatchTable ) {
+			throw new IllegalArgumentException("Dispatch table is null");
+		}
 		this.componentInstance = componentInstance ; // Not null
-		this.interceptorProviders = interceptorProviders ; // Can be null
+		this.dispatchTable = dispatchTable ; // Not null
+		this.traceLogEnabled = loggingPolicy.isTraceEnabled() ;
 	}
 
 //	/**
@@ -77,124 +118,36 @@ public class GenericInvocationHandler implements InvocationHandler {
 //		return null ;
 //	}
 	
-	/**
-	 * Returns all the active interceptors for the given method according with the "pointcuts" or specific providers conditions
-	 * @param method
-	 * @return
-	 */
-	private Interceptor[] getActiveInterceptorsForMethod( Method method )  {
-
-		//InterceptorProvider[] interceptorProviders = this.interceptorProviders;
-		if ( interceptorProviders != null ) {
-			//--- There are some interceptor providers (at least one)
-			LinkedList<Interceptor> activeInterceptors = new LinkedList<Interceptor>() ;
-			for ( int i = 0 ; i < interceptorProviders.length ; i++ ) {
-				//--- Is this interceptor active for this method ?
-				InterceptorProvider interceptorProvider = interceptorProviders[i];
-				Interceptor interceptor = interceptorProvider.getInterceptor(method, componentInstance);
-				if ( interceptor != null ) {
-					//--- Active => keep it
-					activeInterceptors.add(interceptor);
-				}
-			}
-			if ( activeInterceptors.size() > 0 ) {
-				return activeInterceptors.toArray( VOID_INTERCEPTOR_ARRAY );
-			}
-		}
-		return null ; // No active interceptor
-	}
-	
-	/**
-	 * Triggered the "beforeCall" event for all the interceptors
-	 * @param interceptors
-	 * @param method
-	 * @param args
-	 */
-	private void notifyInterceptorsBeforeCall(Interceptor[] interceptors, Method method, Object[] args) {
-		//--- Notify all the interceptors in the defined order
-		for ( int i = 0 ; i < interceptors.length ; i++ ) {
-			Interceptor interceptor = interceptors[i];
-			if ( interceptor != null ) {
-				interceptor.beforeCall(componentInstance, method, args);
-			}
-		}
-	}
-	
-	/**
-	 * Triggered the "afterCall" event for all the interceptors
-	 * @param interceptors
-	 * @param method
-	 * @param args
-	 * @param result
-	 */
-	private void notifyInterceptorsAfterCall(Interceptor[] interceptors, Method method, Object[] args, Object result ) {
-		//--- Notify all the interceptors in the reversed order
-		for ( int i = interceptors.length-1 ; i >= 0 ; i-- ) {
-			Interceptor interceptor = interceptors[i];
-			if ( interceptor != null ) {
-				interceptor.afterCall(componentInstance, method, args, result);
-			}
-		}
-	}
-	
-	/**
-	 * Triggered the "onError" event for all the interceptors
-	 * @param interceptors
-	 * @param method
-	 * @param args
-	 * @param exception
-	 */
-	private void notifyInterceptorsOnError(Interceptor[] interceptors, Method method, Object[] args, Exception exception) {
-		//--- Notify all the interceptors in the reversed order
-		for ( int i = interceptors.length-1 ; i >= 0 ; i-- ) {
-			Interceptor interceptor = interceptors[i];
-			if ( interceptor != null ) {
-				interceptor.onError(componentInstance, method, args, exception);
-			}
-		}
-	}
-	
-	public Object invoke(Object proxy, Method method, Object[] args) throws Exception  {
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable  {
 		
 		//Interceptor interceptor = getInterceptor(method); // NB : interface method (not implementation class method)
-		Interceptor[] interceptors = getActiveInterceptorsForMethod(method);
-		if ( interceptors != null ) {
+		MethodInterceptor[] chain = dispatchTable.getInterceptorChain(method, componentInstance); // cached for each method
+		if ( chain != null ) {
 
-			//--- Before Call
-			logger.info("===== [ PROXY ] : Before call / " + componentInstance.getClass().getSimpleName() + " " + method.getName() );
-			//interceptor.beforeCall(componentInstance, method, args);
-			notifyInterceptorsBeforeCall(interceptors, method, args);
-			
-			//--- Call ( invoke the method )
-			Exception exception = null ;
-			Object result = null ;
-			try {
-				result = MethodInvoker.invoke(componentInstance, method, args) ;
-			} catch (Exception e) {
-				exception = e ;
+			//--- Call through the interceptors chain
+			if ( traceLogEnabled ) {
+				logger.info("===== [ PROXY ] : Before call / " + componentInstance.getClass().getSimpleName() + " " + method.getName() );
 			}
-			
-			if ( exception != null ) {
+			Object result ;
+			try {
+				result = new ChainedMethodInvocation(chain, TARGET_INVOKER, componentInstance, method, -1, args).proceed();
+			} catch (Throwable e) {
 				//--- Call error
-				logger.info("===== [ PROXY ] : Call error / " + componentInstance.getClass().getSimpleName() + " " + method.getName() );
-				//interceptor.onError(componentInstance, method, args, exception);
-				notifyInterceptorsOnError(interceptors, method, args, exception);
-				
+				if ( traceLogEnabled ) {
+					logger.info("===== [ PROXY ] : Call error / " + componentInstance.getClass().getSimpleName() + " " + method.getName() );
+				}
 				//--- Exception propagation 
-				throw exception ;
+				throw e ;
 			}
-			else {
-				//--- After Call
+			//--- After Call
+			if ( traceLogEnabled ) {
 				logger.info("===== [ PROXY ] : After call / " + componentInstance.getClass().getSimpleName() + " " + method.getName() );
-				//interceptor.afterCall(componentInstance, method, args, result);
-				notifyInterceptorsAfterCall(interceptors, method, args, result);
 			}
-			
 			return result;
 		}
 		else {
 			//--- No interceptor 
-			Object result = MethodInvoker.invoke(componentInstance, method, args) ;
+			Object result = MethodHandleInvoker.invoke(componentInstance, method, args) ;
 			return result ;
 		}
 	}
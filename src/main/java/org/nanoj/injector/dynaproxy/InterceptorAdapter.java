@@ -0,0 +1,87 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.aop.AsyncInterceptor;
+import org.nanoj.injector.aop.Interceptor;
+import org.nanoj.injector.aop.MethodInterceptor;
+import org.nanoj.injector.aop.MethodInvocation;
+
+/**
+ * Adapter converting a classic Interceptor ( before / after / error events ) into a MethodInterceptor <br>
+ * <br>
+ * Same events as the classic loops : 'beforeCall' in the chain order, then 'afterCall' or 'onError' in the reverse order <br>
+ * 'onError' is called only for an exception thrown by the component method ( an Error is notified as an InjectorException ), <br>
+ * an exception thrown by an interceptor is propagated as is, without any other event
+ *
+ * @author Laurent GUERIN
+ *
+ */
+final class InterceptorAdapter implements MethodInterceptor {
+
+	private final Interceptor interceptor ;
+
+	private InterceptorAdapter(Interceptor interceptor) {
+		super();
+		this.interceptor = interceptor ;
+	}
+
+	/**
+	 * Returns the MethodInterceptor for the given interceptor ( itself if it's already an "around" interceptor )
+	 * @param interceptor
+	 * @param asyncEventDispatcher the dispatcher for the asynchronous interceptors ( if null they are called synchronously )
+	 * @return
+	 */
+	static MethodInterceptor adapt(Interceptor interceptor, AsyncEventDispatcher asyncEventDispatcher) {
+		if ( interceptor instanceof MethodInterceptor ) {
+			return (MethodInterceptor) interceptor ;
+		}
+		if ( interceptor instanceof AsyncInterceptor && asyncEventDispatcher != null ) {
+			return new AsyncInterceptorAdapter((AsyncInterceptor) interceptor, asyncEventDispatcher);
+		}
+		return new InterceptorAdapter(interceptor);
+	}
+
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		interceptor.beforeCall(invocation.getThis(), invocation.getMethod(), invocation.getArguments());
+		Object result ;
+		try {
+			result = invocation.proceed();
+		} catch (Throwable e) {
+			if ( isTargetException(invocation, e) ) {
+				interceptor.onError(invocation.getThis(), invocation.getMethod(), invocation.getArguments(), toException(invocation, e));
+			}
+			throw e ;
+		}
+		interceptor.afterCall(invocation.getThis(), invocation.getMethod(), invocation.getArguments(), result);
+		return result ;
+	}
+
+	private static boolean isTargetException(MethodInvocation invocation, Throwable e) {
+		if ( invocation instanceof ChainedMethodInvocation ) {
+			return ((ChainedMethodInvocation) invocation).isTargetException(e);
+		}
+		return true ;
+	}
+
+	private static Exception toException(MethodInvocation invocation, Throwable e) {
+		if ( e instanceof Exception ) {
+			return (Exception) e ;
+		}
+		return new InjectorException("Error when invoking method '" + invocation.getMethod().getName() + "' : Throwable/Error", e) ;
+	}
+}
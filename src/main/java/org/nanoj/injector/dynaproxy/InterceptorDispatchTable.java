@@ -0,0 +1,282 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nanoj.injector.aop.Interceptor;
+import org.nanoj.injector.aop.InterceptorProvider;
+import org.nanoj.injector.aop.MethodInterceptor;
+import org.nanoj.injector.aop.PointCutInterceptorProvider;
+import org.nanoj.injector.aop.UncachedInterceptorProvider;
+
+/**
+ * Dispatch table giving the chain of interceptors for each method of a proxied component <br>
+ * <br>
+ * There's one table for each proxied interface and implementation class, shared by all the proxy instances <br>
+ * The interceptors are resolved at the first call of each method and kept in a concurrent table <br>
+ * as a precompiled chain of MethodInterceptors ( the classic Interceptors are adapted ), <br>
+ * so that the next calls don't resolve anything ( except for the providers that opt out of caching,
+ * see UncachedInterceptorProvider ) <br>
+ * The PointCut of a PointCutInterceptorProvider is evaluated once for each method <br>
+ * When built with a first component instance, all the interface methods are resolved at once ( pre-analysis ) <br>
+ * and the table tells if a proxy is required for the component ( see isInterceptionRequired )
+ *
+ * @author Laurent GUERIN
+ *
+ */
+public class InterceptorDispatchTable {
+
+	private final Class<?>               interfaceClass ;
+
+	private final Class<?>               implementationClass ;
+
+	private final InterceptorProvider[]  interceptorProviders ;
+
+	/**
+	 * Dispatcher for the asynchronous interceptors ( null => called synchronously )
+	 */
+	private final AsyncEventDispatcher   asyncEventDispatcher ;
+
+	/**
+	 * False if no interceptor can be called for this component ( no proxy required )
+	 */
+	private final boolean                interceptionRequired ;
+
+	/**
+	 * The resolved dispatch for each method already called
+	 */
+	private final ConcurrentHashMap<Method, MethodDispatch> methodsDispatch = new ConcurrentHashMap<Method, MethodDispatch>();
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param interfaceClass the proxied interface
+	 * @param implementationClass the implementation class of the component instances
+	 * @param interceptorProviders the interceptor providers (can be null)
+	 */
+	public InterceptorDispatchTable(Class<?> interfaceClass, Class<?> implementationClass, InterceptorProvider[] interceptorProviders) {
+		super();
+		this.interfaceClass = interfaceClass ;
+		this.implementationClass = implementationClass ;
+		this.interceptorProviders = interceptorProviders ;
+		this.asyncEventDispatcher = null ;
+		this.interceptionRequired = ( interceptorProviders != null && interceptorProviders.length > 0 ) ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor with pre-analysis : each provider is asked once about each interface method
+	 * @param interfaceClass the proxied interface
+	 * @param implementationClass the implementation class of the component instances
+	 * @param interceptorProviders the interceptor providers (can be null)
+	 * @param componentInstance the first component instance ( used to resolve the interceptors )
+	 * @param asyncEventDispatcher the dispatcher for the asynchronous interceptors ( can be null )
+	 */
+	public InterceptorDispatchTable(Class<?> interfaceClass, Class<?> implementationClass, InterceptorProvider[] interceptorProviders,
+			Object componentInstance, AsyncEventDispatcher asyncEventDispatcher) {
+		super();
+		this.interfaceClass = interfaceClass ;
+		this.implementationClass = implementationClass ;
+		this.interceptorProviders = interceptorProviders ;
+		this.asyncEventDispatcher = asyncEventDispatcher ;
+
+		boolean required = false ;
+		if ( interceptorProviders != null && interceptorProviders.length > 0 ) {
+			for ( Method method : interfaceClass.getMethods() ) {
+				if ( Modifier.isStatic(method.getModifiers()) ) {
+					continue ;
+				}
+				MethodDispatch dispatch = new MethodDispatch(method, componentInstance, interceptorProviders, asyncEventDispatcher);
+				methodsDispatch.put(method, dispatch);
+				if ( dispatch.isInterceptionPossible() ) {
+					required = true ;
+				}
+			}
+		}
+		this.interceptionRequired = required ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the proxied interface
+	 * @return
+	 */
+	public Class<?> getInterfaceClass() {
+		return interfaceClass ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the implementation class of the component instances
+	 * @return
+	 */
+	public Class<?> getImplementationClass() {
+		return implementationClass ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if at least one interceptor can be called for the component methods <br>
+	 * ( if false the component instances can be used without proxy )
+	 * @return
+	 */
+	public boolean isInterceptionRequired() {
+		return interceptionRequired ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the chain of interceptors for the given method, or null if none
+	 * @param method the invoked interface method
+	 * @param componentInstance the targeted component instance
+	 * @return
+	 */
+	public MethodInterceptor[] getInterceptorChain(Method method, Object componentInstance) {
+		MethodDispatch dispatch = methodsDispatch.get(method);
+		if ( dispatch == null ) {
+			//--- First call for this method : resolve and keep the dispatch
+			dispatch = new MethodDispatch(method, componentInstance, interceptorProviders, asyncEventDispatcher);
+			MethodDispatch existing = methodsDispatch.putIfAbsent(method, dispatch);
+			if ( existing != null ) {
+				dispatch = existing ;
+			}
+		}
+		return dispatch.getInterceptorChain(method, componentInstance);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Resolved dispatch for a method
+	 */
+	private final static class MethodDispatch {
+
+		/**
+		 * The precompiled chain to be used for each call ( null if none ), set if all the providers are cacheable
+		 */
+		private final MethodInterceptor[]    chain ;
+
+		/**
+		 * The cached interceptors, at the position of their provider ( set only if there are uncached providers )
+		 */
+		private final MethodInterceptor[]    cachedSlots ;
+
+		/**
+		 * The uncached providers, at their position ( set only if there are uncached providers )
+		 */
+		private final InterceptorProvider[]  uncachedSlots ;
+
+		private final AsyncEventDispatcher   asyncEventDispatcher ;
+
+		MethodDispatch(Method method, Object componentInstance, InterceptorProvider[] interceptorProviders,
+				AsyncEventDispatcher asyncEventDispatcher) {
+			super();
+			this.asyncEventDispatcher = asyncEventDispatcher ;
+			if ( interceptorProviders == null || interceptorProviders.length == 0 ) {
+				this.chain         = null ;
+				this.cachedSlots   = null ;
+				this.uncachedSlots = null ;
+				return ;
+			}
+			int n = interceptorProviders.length ;
+			MethodInterceptor[] cached = new MethodInterceptor[n];
+			InterceptorProvider[] uncached = null ;
+			int activeCount = 0 ;
+			for ( int i = 0 ; i < n ; i++ ) {
+				InterceptorProvider interceptorProvider = interceptorProviders[i];
+				if ( interceptorProvider instanceof PointCutInterceptorProvider ) {
+					//--- PointCut evaluated once : the provider is never requested for the other methods
+					PointCutInterceptorProvider pointCutProvider = (PointCutInterceptorProvider) interceptorProvider ;
+					if ( ! pointCutProvider.getPointCut().callInterceptor(method, componentInstance) ) {
+						continue ;
+					}
+					interceptorProvider = pointCutProvider.getInterceptorProvider() ;
+				}
+				if ( interceptorProvider instanceof UncachedInterceptorProvider ) {
+					//--- Provider to be requested for each call
+					if ( uncached == null ) {
+						uncached = new InterceptorProvider[n];
+					}
+					uncached[i] = interceptorProvider ;
+				}
+				else {
+					//--- Is this interceptor active for this method ?
+					Interceptor interceptor = interceptorProvider.getInterceptor(method, componentInstance);
+					if ( interceptor != null ) {
+						cached[i] = InterceptorAdapter.adapt(interceptor, asyncEventDispatcher);
+						activeCount++ ;
+					}
+				}
+			}
+			if ( uncached == null ) {
+				//--- All the providers are cacheable : keep only the active interceptors (in the providers order)
+				this.chain         = ( activeCount > 0 ? compact(cached, activeCount) : null ) ;
+				this.cachedSlots   = null ;
+				this.uncachedSlots = null ;
+			}
+			else {
+				this.chain         = null ;
+				this.cachedSlots   = cached ;
+				this.uncachedSlots = uncached ;
+			}
+		}
+
+		/**
+		 * Returns true if an interceptor can be returned for this method
+		 */
+		boolean isInterceptionPossible() {
+			return chain != null || uncachedSlots != null ;
+		}
+
+		private static MethodInterceptor[] compact(MethodInterceptor[] slots, int activeCount) {
+			MethodInterceptor[] array = new MethodInterceptor[activeCount];
+			int j = 0 ;
+			for ( MethodInterceptor interceptor : slots ) {
+				if ( interceptor != null ) {
+					array[j++] = interceptor ;
+				}
+			}
+			return array ;
+		}
+
+		MethodInterceptor[] getInterceptorChain(Method method, Object componentInstance) {
+			if ( uncachedSlots == null ) {
+				//--- Usual case : nothing to resolve
+				return chain ;
+			}
+			//--- Request the uncached providers for this call
+			int activeCount = 0 ;
+			MethodInterceptor[] slots = new MethodInterceptor[cachedSlots.length];
+			for ( int i = 0 ; i < slots.length ; i++ ) {
+				if ( uncachedSlots[i] != null ) {
+					Interceptor interceptor = uncachedSlots[i].getInterceptor(method, componentInstance);
+					if ( interceptor != null ) {
+						slots[i] = InterceptorAdapter.adapt(interceptor, asyncEventDispatcher);
+					}
+				}
+				else {
+					slots[i] = cachedSlots[i];
+				}
+				if ( slots[i] != null ) {
+					activeCount++ ;
+				}
+			}
+			return ( activeCount > 0 ? compact(slots, activeCount) : null ) ;
+		}
+	}
+}
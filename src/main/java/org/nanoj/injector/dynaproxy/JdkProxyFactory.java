@@ -0,0 +1,90 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.LoggingPolicy;
+
+/**
+ * Factory for the JDK dynamic proxies of a component interface ( see ProxyEngine.JDK ) <br>
+ * <br>
+ * The proxy class and its constructor are resolved once ( at the creation of the factory ), <br>
+ * each proxy is then created by a direct constructor call with a new GenericInvocationHandler <br>
+ * ( no proxy class lookup in the JDK cache as with 'Proxy.newProxyInstance' )
+ *
+ * @author Laurent GUERIN
+ *
+ */
+public final class JdkProxyFactory implements ProxyFactory {
+
+	private final static MethodType GENERIC_TYPE = MethodType.methodType(Object.class, InvocationHandler.class);
+
+	private final Class<?>      interfaceClass ;
+
+	/**
+	 * The proxy constructor handle with the generic signature "(InvocationHandler)Object"
+	 */
+	private final MethodHandle  constructorHandle ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor : resolves the proxy class for the given interface
+	 * @param interfaceClass the component interface
+	 */
+	public JdkProxyFactory(Class<?> interfaceClass) {
+		super();
+		this.interfaceClass = interfaceClass ;
+		Class<?> proxyClass = Proxy.getProxyClass(interfaceClass.getClassLoader(), interfaceClass);
+		try {
+			Constructor<?> constructor = proxyClass.getConstructor(InvocationHandler.class);
+			try {
+				//--- Proxy class not public for a non public interface
+				constructor.setAccessible(true);
+			} catch (RuntimeException e) {
+				// Not accessible : use the access check of the lookup
+			}
+			this.constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor).asType(GENERIC_TYPE);
+		} catch (NoSuchMethodException e) {
+			throw new InjectorException("Cannot get proxy constructor for " + interfaceClass.getName(), e );
+		} catch (IllegalAccessException e) {
+			throw new InjectorException("Cannot get proxy constructor for " + interfaceClass.getName(), e );
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	public Class<?> getInterfaceClass() {
+		return interfaceClass ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	public Object newProxy(Object componentInstance, InterceptorDispatchTable dispatchTable, LoggingPolicy loggingPolicy) {
+		InvocationHandler invocationHandler = new GenericInvocationHandler(componentInstance, dispatchTable, loggingPolicy);
+		try {
+			return (Object) constructorHandle.invokeExact(invocationHandler);
+		} catch (Error e) {
+			throw e ;
+		} catch (Throwable e) {
+			throw new InjectorException("Cannot create proxy for " + interfaceClass.getName(), e );
+		}
+	}
+}
@@ -0,0 +1,401 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nanoj.injector.aop.MethodInterceptor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Bytecode generator for the proxy classes ( requires ASM ) <br>
+ * <br>
+ * Generates a subclass of GeneratedProxy implementing the component interface <br>
+ * NB : this class is the only one referencing ASM, it's loaded only if ASM is available
+ *
+ * @author Laurent GUERIN
+ *
+ */
+final class ProxyClassGenerator implements Opcodes {
+
+	private final static String GENERATED_PACKAGE   = "org/nanoj/injector/dynaproxy/generated/" ;
+
+	private final static String SUPER_NAME          = Type.getInternalName(GeneratedProxy.class);
+
+	private final static String OBJECT_NAME         = Type.getInternalName(Object.class);
+
+	private final static String UNDECLARED_NAME     = "java/lang/reflect/UndeclaredThrowableException" ;
+
+	private final static String CONSTRUCTOR_DESC    = "(Ljava/lang/Object;" + Type.getDescriptor(InterceptorDispatchTable.class)
+														+ "[Ljava/lang/reflect/Method;Z)V" ;
+
+	private final static String INTERCEPTORS_DESC   = "(I)[" + Type.getDescriptor(MethodInterceptor.class) ;
+
+	private final static String INTERCEPT_DESC      = "([" + Type.getDescriptor(MethodInterceptor.class) + "I[Ljava/lang/Object;)Ljava/lang/Object;" ;
+
+	private final static String INVOKE_TARGET_DESC  = "(I[Ljava/lang/Object;)Ljava/lang/Object;" ;
+
+	private final static AtomicInteger classCounter = new AtomicInteger();
+
+	private ProxyClassGenerator() {
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Generates and loads the proxy class for the given interface
+	 * @param interfaceClass the component interface
+	 * @param methods the interface methods to be implemented ( the method index is the position in this array )
+	 * @return the proxy class
+	 */
+	static Class<?> generateProxyClass(Class<?> interfaceClass, Method[] methods) {
+
+		String interfaceName = Type.getInternalName(interfaceClass);
+		String className = GENERATED_PACKAGE + interfaceClass.getName().replace('.', '_').replace('$', '_')
+				+ "$Proxy" + classCounter.incrementAndGet() ;
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				// Never merged in the generated code : no class loading here
+				return OBJECT_NAME ;
+			}
+		};
+		cw.visit(V1_7, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, className, null, SUPER_NAME, new String[] { interfaceName });
+
+		generateConstructor(cw);
+		for ( int i = 0 ; i < methods.length ; i++ ) {
+			generateMethod(cw, interfaceName, methods[i], i);
+		}
+		generateInvokeTarget(cw, interfaceName, methods);
+		cw.visitEnd();
+
+		byte[] bytes = cw.toByteArray();
+		ProxyClassLoader classLoader = new ProxyClassLoader(interfaceClass.getClassLoader());
+		return classLoader.define(className.replace('/', '.'), bytes);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor : calls the super class constructor
+	 * @param cw
+	 */
+	private static void generateConstructor(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitVarInsn(ILOAD, 4);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", CONSTRUCTOR_DESC, false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Interface method implementation : <br>
+	 *   try { <br>
+	 *     MethodInterceptor[] chain = interceptors(index); <br>
+	 *     if ( chain == null ) return ((Interface)target).method(args...); <br>
+	 *     return (R) intercept(chain, index, new Object[] { args... }); <br>
+	 *   } <br>
+	 *   catch ( RuntimeException | Error | declared exceptions e ) { throw e ; } <br>
+	 *   catch ( Throwable t ) { throw new UndeclaredThrowableException(t); } <br>
+	 * @param cw
+	 * @param interfaceName
+	 * @param method
+	 * @param methodIndex
+	 */
+	private static void generateMethod(ClassWriter cw, String interfaceName, Method method, int methodIndex) {
+		String descriptor = Type.getMethodDescriptor(method);
+		Type[] argTypes = Type.getArgumentTypes(method);
+		Type returnType = Type.getReturnType(method);
+
+		String[] exceptions = getInternalNames(method.getExceptionTypes());
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, method.getName(), descriptor, null, exceptions);
+		mv.visitCode();
+
+		//--- Exceptions rethrown as is ( as java.lang.reflect.Proxy ), the others are undeclared 
+		Label tryStart = new Label();
+		Label tryEnd = new Label();
+		List<String> rethrownTypes = new LinkedList<String>();
+		rethrownTypes.add("java/lang/RuntimeException");
+		rethrownTypes.add("java/lang/Error");
+		if ( exceptions != null ) {
+			rethrownTypes.addAll(Arrays.asList(exceptions));
+		}
+		boolean undeclaredPossible = ! rethrownTypes.contains("java/lang/Throwable") ;
+		Label[] rethrowLabels = new Label[rethrownTypes.size()];
+		for ( int i = 0 ; i < rethrowLabels.length ; i++ ) {
+			rethrowLabels[i] = new Label();
+			mv.visitTryCatchBlock(tryStart, tryEnd, rethrowLabels[i], rethrownTypes.get(i));
+		}
+		Label undeclaredLabel = new Label();
+		if ( undeclaredPossible ) {
+			mv.visitTryCatchBlock(tryStart, tryEnd, undeclaredLabel, "java/lang/Throwable");
+		}
+		mv.visitLabel(tryStart);
+
+		//--- Active interceptors for this method
+		int interceptorsSlot = 1 ;
+		for ( Type argType : argTypes ) {
+			interceptorsSlot += argType.getSize() ;
+		}
+		mv.visitVarInsn(ALOAD, 0);
+		pushInt(mv, methodIndex);
+		mv.visitMethodInsn(INVOKEVIRTUAL, SUPER_NAME, "interceptors", INTERCEPTORS_DESC, false);
+		mv.visitVarInsn(ASTORE, interceptorsSlot);
+		mv.visitVarInsn(ALOAD, interceptorsSlot);
+		Label interceptLabel = new Label();
+		mv.visitJumpInsn(IFNONNULL, interceptLabel);
+
+		//--- No interceptor : direct call
+		loadTarget(mv, interfaceName, method);
+		int slot = 1 ;
+		for ( Type argType : argTypes ) {
+			mv.visitVarInsn(argType.getOpcode(ILOAD), slot);
+			slot += argType.getSize() ;
+		}
+		invokeTargetMethod(mv, interfaceName, method);
+		mv.visitInsn(returnType.getOpcode(IRETURN));
+
+		//--- Interceptors : call with notifications
+		mv.visitLabel(interceptLabel);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, interceptorsSlot);
+		pushInt(mv, methodIndex);
+		pushInt(mv, argTypes.length);
+		mv.visitTypeInsn(ANEWARRAY, OBJECT_NAME);
+		slot = 1 ;
+		for ( int i = 0 ; i < argTypes.length ; i++ ) {
+			mv.visitInsn(DUP);
+			pushInt(mv, i);
+			mv.visitVarInsn(argTypes[i].getOpcode(ILOAD), slot);
+			box(mv, argTypes[i]);
+			mv.visitInsn(AASTORE);
+			slot += argTypes[i].getSize() ;
+		}
+		mv.visitMethodInsn(INVOKEVIRTUAL, SUPER_NAME, "intercept", INTERCEPT_DESC, false);
+		if ( returnType.getSort() == Type.VOID ) {
+			mv.visitInsn(POP);
+		}
+		else {
+			unbox(mv, returnType);
+		}
+		mv.visitInsn(returnType.getOpcode(IRETURN));
+		mv.visitLabel(tryEnd);
+
+		//--- Exception handlers 
+		for ( Label rethrowLabel : rethrowLabels ) {
+			mv.visitLabel(rethrowLabel);
+			mv.visitInsn(ATHROW);
+		}
+		if ( undeclaredPossible ) {
+			mv.visitLabel(undeclaredLabel);
+			mv.visitTypeInsn(NEW, UNDECLARED_NAME);
+			mv.visitInsn(DUP_X1);
+			mv.visitInsn(SWAP);
+			mv.visitMethodInsn(INVOKESPECIAL, UNDECLARED_NAME, "<init>", "(Ljava/lang/Throwable;)V", false);
+			mv.visitInsn(ATHROW);
+		}
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Target method call for the intercepted calls : <br>
+	 *   switch ( index ) { case N : return box( ((Interface)target).methodN( unbox(args[0]), ... ) ); ... }
+	 * @param cw
+	 * @param interfaceName
+	 * @param methods
+	 */
+	private static void generateInvokeTarget(ClassWriter cw, String interfaceName, Method[] methods) {
+		MethodVisitor mv = cw.visitMethod(ACC_PROTECTED | ACC_FINAL, "invokeTarget", INVOKE_TARGET_DESC, null,
+				new String[] { "java/lang/Throwable" });
+		mv.visitCode();
+
+		Label defaultLabel = new Label();
+		if ( methods.length > 0 ) {
+			Label[] labels = new Label[methods.length];
+			for ( int i = 0 ; i < labels.length ; i++ ) {
+				labels[i] = new Label();
+			}
+			mv.visitVarInsn(ILOAD, 1);
+			mv.visitTableSwitchInsn(0, methods.length - 1, defaultLabel, labels);
+
+			for ( int i = 0 ; i < methods.length ; i++ ) {
+				Method method = methods[i];
+				Type[] argTypes = Type.getArgumentTypes(method);
+				Type returnType = Type.getReturnType(method);
+
+				mv.visitLabel(labels[i]);
+				loadTarget(mv, interfaceName, method);
+				for ( int j = 0 ; j < argTypes.length ; j++ ) {
+					mv.visitVarInsn(ALOAD, 2);
+					pushInt(mv, j);
+					mv.visitInsn(AALOAD);
+					unbox(mv, argTypes[j]);
+				}
+				invokeTargetMethod(mv, interfaceName, method);
+				if ( returnType.getSort() == Type.VOID ) {
+					mv.visitInsn(ACONST_NULL);
+				}
+				else {
+					box(mv, returnType);
+				}
+				mv.visitInsn(ARETURN);
+			}
+		}
+
+		//--- Unknown method index
+		mv.visitLabel(defaultLabel);
+		mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "()V", false);
+		mv.visitInsn(ATHROW);
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	private static void loadTarget(MethodVisitor mv, String interfaceName, Method method) {
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, "target", "Ljava/lang/Object;");
+		if ( method.getDeclaringClass() != Object.class ) {
+			mv.visitTypeInsn(CHECKCAST, interfaceName);
+		}
+	}
+
+	/**
+	 * Calls the given method on the target ( interface method or java.lang.Object method )
+	 */
+	private static void invokeTargetMethod(MethodVisitor mv, String interfaceName, Method method) {
+		if ( method.getDeclaringClass() == Object.class ) {
+			mv.visitMethodInsn(INVOKEVIRTUAL, OBJECT_NAME, method.getName(), Type.getMethodDescriptor(method), false);
+		}
+		else {
+			mv.visitMethodInsn(INVOKEINTERFACE, interfaceName, method.getName(), Type.getMethodDescriptor(method), true);
+		}
+	}
+
+	private static void pushInt(MethodVisitor mv, int value) {
+		if ( value >= -1 && value <= 5 ) {
+			mv.visitInsn(ICONST_0 + value);
+		}
+		else if ( value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ) {
+			mv.visitIntInsn(BIPUSH, value);
+		}
+		else if ( value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ) {
+			mv.visitIntInsn(SIPUSH, value);
+		}
+		else {
+			mv.visitLdcInsn(value);
+		}
+	}
+
+	/**
+	 * Boxes the primitive value on the top of the stack ( nothing for an object )
+	 */
+	private static void box(MethodVisitor mv, Type type) {
+		String wrapper = getWrapperName(type);
+		if ( wrapper != null ) {
+			mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + type.getDescriptor() + ")L" + wrapper + ";", false);
+		}
+	}
+
+	/**
+	 * Unboxes ( or casts ) the object on the top of the stack to the given type
+	 */
+	private static void unbox(MethodVisitor mv, Type type) {
+		String wrapper = getWrapperName(type);
+		if ( wrapper != null ) {
+			mv.visitTypeInsn(CHECKCAST, wrapper);
+			mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getClassName() + "Value", "()" + type.getDescriptor(), false);
+		}
+		else if ( ! OBJECT_NAME.equals(type.getInternalName()) ) {
+			mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+		}
+	}
+
+	private static String getWrapperName(Type type) {
+		switch ( type.getSort() ) {
+		case Type.BOOLEAN : return "java/lang/Boolean" ;
+		case Type.CHAR    : return "java/lang/Character" ;
+		case Type.BYTE    : return "java/lang/Byte" ;
+		case Type.SHORT   : return "java/lang/Short" ;
+		case Type.INT     : return "java/lang/Integer" ;
+		case Type.FLOAT   : return "java/lang/Float" ;
+		case Type.LONG    : return "java/lang/Long" ;
+		case Type.DOUBLE  : return "java/lang/Double" ;
+		default           : return null ;
+		}
+	}
+
+	private static String[] getInternalNames(Class<?>[] classes) {
+		if ( classes.length == 0 ) {
+			return null ;
+		}
+		String[] names = new String[classes.length];
+		for ( int i = 0 ; i < classes.length ; i++ ) {
+			names[i] = Type.getInternalName(classes[i]);
+		}
+		return names ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Class loader defining a generated proxy class <br>
+	 * The interface and its types are loaded by the interface class loader (parent), <br>
+	 * the proxy support classes are always the ones of this library
+	 */
+	private final static class ProxyClassLoader extends ClassLoader {
+
+		ProxyClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if ( GeneratedProxy.class.getName().equals(name) ) {
+				return GeneratedProxy.class ;
+			}
+			if ( InterceptorDispatchTable.class.getName().equals(name) ) {
+				return InterceptorDispatchTable.class ;
+			}
+			if ( MethodInterceptor.class.getName().equals(name) ) {
+				return MethodInterceptor.class ;
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
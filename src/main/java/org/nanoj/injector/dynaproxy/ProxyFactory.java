@@ -0,0 +1,44 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.dynaproxy;
+
+import org.nanoj.injector.LoggingPolicy;
+
+/**
+ * Factory of the proxies of an intercepted component interface <br>
+ * Built once for each component definition ( see ProxyEngine )
+ *
+ * @author Laurent GUERIN
+ *
+ */
+public interface ProxyFactory {
+
+	/**
+	 * Returns the proxied interface
+	 * @return
+	 */
+	public Class<?> getInterfaceClass() ;
+
+	/**
+	 * Creates a new proxy for the given component instance
+	 * @param componentInstance the component instance ( implements the interface )
+	 * @param dispatchTable the interceptors dispatch table
+	 * @param loggingPolicy
+	 * @return
+	 */
+	public Object newProxy(Object componentInstance, InterceptorDispatchTable dispatchTable, LoggingPolicy loggingPolicy) ;
+
+}
@@ -19,6 +19,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 
+import javax.inject.Scope;
+
 class AnnotationUtil {
 
 	/**
@@ -30,6 +32,15 @@ class AnnotationUtil {
 		return  annotation.annotationType().getCanonicalName().endsWith(".Singleton") ;
 	}
 
+	/**
+	 * Returns true if the given annotation is a scope annotation ( annotated with "@Scope" )
+	 * @param annotation
+	 * @return
+	 */
+	static boolean isScope(Annotation annotation)  {
+		return  annotation.annotationType().isAnnotationPresent(Scope.class) ;
+	}
+
 	/**
 	 * Returns true if the given annotation can be considered as a "@Inject" annotation
 	 * @param annotation
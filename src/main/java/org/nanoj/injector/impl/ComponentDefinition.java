@@ -17,16 +17,22 @@ package org.nanoj.injector.impl;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Proxy;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.inject.Provider;
 
 import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.ProxyEngine;
 import org.nanoj.injector.aop.InterceptorProvider;
-import org.nanoj.injector.dynaproxy.GenericInvocationHandler;
+import org.nanoj.injector.dynaproxy.GeneratedProxyFactory;
+import org.nanoj.injector.dynaproxy.InterceptorDispatchTable;
+import org.nanoj.injector.dynaproxy.JdkProxyFactory;
+import org.nanoj.injector.dynaproxy.ProxyFactory;
+import org.nanoj.injector.scope.ComponentScope;
+import org.nanoj.injector.scope.ScopeStorage;
+import org.nanoj.injector.spi.ComponentFactory;
 import org.nanoj.injector.tools.ClassTools;
 
 
@@ -43,7 +49,9 @@ import org.nanoj.injector.tools.ClassTools;
  */
 class ComponentDefinition<T>
 {
-    private final static Field[] VOID_FIELD_ARRAY = new Field[0];
+    private final static FieldInjector[] VOID_FIELD_INJECTOR_ARRAY = new FieldInjector[0];
+    
+    private final static Object[] VOID_OBJECT_ARRAY = new Object[0];
     
 	//-----------------------------------------------------------------------------------------
 
@@ -79,12 +87,37 @@ class ComponentDefinition<T>
 	private boolean  _bMonoInstance = false ; // by default NOT "mono-instance"
 	
 	/**
-	 * The single instance kept here to be reused ( for "mono-instance" components only )
+	 * The scope of this component ( null if not scoped )
+	 */
+	private ComponentScope _scope = null ;
+	
+	/**
+	 * The id of this component in the scope storages ( -1 if not scoped ) <br>
+	 * Given by the injector when the definition is registered ( see setScopeId )
+	 */
+	private int _scopeId = -1 ;
+	
+	/**
+	 * The single instance kept here to be reused ( for "mono-instance" components only ) <br>
+	 * Volatile : only assigned once fully built, so that it's never seen half-built by another thread
+	 */
+	private volatile T   _singleInstance = null ;
+
+	/**
+	 * The lock guarding the creation of the single instance ( not used once the single instance exists ) <br>
+	 * A ReentrantLock rather than 'synchronized' : a virtual thread waiting for it ( or creating a slow instance ) 
+	 * never pins its carrier thread
 	 */
-	private T   _singleInstance = null ;
+	private final ReentrantLock _singleInstanceLock = new ReentrantLock();
 
 	//-----------------------------------------------------------------------------------------
 	
+	/**
+	 * The factory generated at compile time for the implementation class, or null if none <br>
+	 * ( if not null the constructors and fields below are not used : no introspection, no reflection )
+	 */
+	private ComponentFactory<T> _generatedFactory = null ;
+	
 	/**
 	 * The component's default constructor (without dependencies), or null if dependencies required
 	 */
@@ -95,12 +128,37 @@ class ComponentDefinition<T>
 	 */
 	private Constructor<? extends T> _constructorWithDependencies = null ;
 	
+	/**
+	 * The factory built once for the constructor to be used (default constructor or constructor with dependencies)
+	 */
+	private ConstructorFactory<T> _constructorFactory = null ;
+	
 	/**
 	 * The fields to be injected in the component instance after construction<br>
-	 * The fields with a "@Inject" annotation
+	 * The fields with a "@Inject" annotation, each one with its prebuilt setter
 	 * ( null if none )
 	 */
-	private Field[] _fieldsToBeInjected = null ;
+	private FieldInjector[] _fieldsToBeInjected = null ;
+	
+	/**
+	 * The dependency resolution plan ( resolved once, at the first instantiation ) <br>
+	 * Not resolved at definition time in order to never create a definition while another one is in creation
+	 */
+	private volatile DependencyPlan _dependencyPlan = null ;
+	
+	/**
+	 * The interceptors dispatch tables shared by all the proxies of this component, for each implementation class <br>
+	 * ( a single one, except if the instances come from a specific provider )
+	 */
+	private final ConcurrentHashMap<Class<?>, InterceptorDispatchTable> _dispatchTables = 
+			new ConcurrentHashMap<Class<?>, InterceptorDispatchTable>(4);
+	
+	/**
+	 * The proxies factory for this component interface, built once when the first proxy is required <br>
+	 * ( generated proxies if the proxy engine is GENERATED and if the interface is supported, else JDK proxies )
+	 */
+	private volatile ProxyFactory _proxyFactory = null ;
+	private final ReentrantLock _proxyFactoryLock = new ReentrantLock();
 	
 
 	
@@ -120,6 +178,19 @@ class ComponentDefinition<T>
 		
 		if ( _implementationClass != null ) {
 			
+			//--- Factory generated at compile time ?
+			_generatedFactory = convert( _container.getGeneratedFactory(_implementationClass) );
+		}
+		
+		if ( _generatedFactory != null ) {
+
+			//--- Constructor and fields given by the generated factory
+			//--- Mono-Instance flag : still decided by the injector ( overridable 'isMonoInstance' )
+			_bMonoInstance = _container.isMonoInstance(_implementationClass);
+			_scope = _container.getComponentScope(_generatedFactory.getScopeAnnotation(), _implementationClass);
+		}
+		else if ( _implementationClass != null ) {
+			
 			//--- Constructors 
 			Constructor<? extends T> constructorToBeUsed = getConstructorToBeUsed(_implementationClass);
 			if ( constructorToBeUsed.getParameterTypes().length == 0 ) {
@@ -128,12 +199,22 @@ class ComponentDefinition<T>
 			else {
 				_constructorWithDependencies = constructorToBeUsed ;
 			}
+			_constructorFactory = new ConstructorFactory<T>(constructorToBeUsed);
 	
 			//--- Fields to be injected 
 			_fieldsToBeInjected = getFieldsToBeInjected(_implementationClass);
 					
 			//--- Mono-Instance flag 
 			_bMonoInstance = _container.isMonoInstance(_implementationClass);
+			
+			//--- Scope 
+			_scope = _container.getComponentScope(_implementationClass);
+		}
+		
+		if ( _scope != null ) {
+			if ( _bMonoInstance ) {
+				throw new InjectorException("Class " + _implementationClass.getName() + " : singleton with another scope");
+			}
 		}
 	}
 	
@@ -220,6 +301,12 @@ class ComponentDefinition<T>
     	return constructor2;
     }
     
+    private final ComponentFactory<T> convert(ComponentFactory<? extends T> factory1) {
+    	@SuppressWarnings("unchecked")
+    	ComponentFactory<T> factory2 = (ComponentFactory<T>)factory1 ;
+    	return factory2;
+    }
+    
 	//-----------------------------------------------------------------------------------------
     /**
      * Returns the constructor that will be used for Dependency Injection
@@ -280,22 +367,23 @@ class ComponentDefinition<T>
 
 	//-----------------------------------------------------------------------------------------
     /**
-     * Returns an array of fields that require a Dependency Injection
+     * Returns an array of field injectors for the fields that require a Dependency Injection <br>
+     * ( the setter of each field is built here, once for all the instances )
      * @param clazz
-     * @return the fields array or null if none
+     * @return the field injectors array or null if none
      */
-    private Field[] getFieldsToBeInjected(Class<? extends T> clazz) {
-    	LinkedList<Field> fieldsToBeInjected = new LinkedList<Field>();
+    private FieldInjector[] getFieldsToBeInjected(Class<? extends T> clazz) {
+    	LinkedList<FieldInjector> fieldsToBeInjected = new LinkedList<FieldInjector>();
     	
     	Field[] declaredFields = clazz.getDeclaredFields() ;
     	for ( Field field : declaredFields ) {
     		//if ( field.getAnnotation(Inject.class) != null ) {
         	if ( AnnotationUtil.hasInjectAnnotation(field) ) {
-    			fieldsToBeInjected.add(field);
+    			fieldsToBeInjected.add( new FieldInjector(field) );
     		}
     	}
     	if ( fieldsToBeInjected.size() > 0 ) {
-    		return fieldsToBeInjected.toArray(VOID_FIELD_ARRAY);
+    		return fieldsToBeInjected.toArray(VOID_FIELD_INJECTOR_ARRAY);
     	}
     	else {
     		return null ;
@@ -357,6 +445,36 @@ class ComponentDefinition<T>
 		return _implementationClass ;
 	}
 
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the component is "mono-instance" (a single instance shared by all the users)
+	 * @return
+	 */
+	public boolean isMonoInstance() 
+	{
+		return _bMonoInstance ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the component has a scope ( other than singleton )
+	 * @return
+	 */
+	public boolean isScoped() 
+	{
+		return _scope != null ;
+	}
+
+	/**
+	 * Sets the id of this component in the scope storages <br>
+	 * Called by the injector before the registration ( only for the definitions actually registered )
+	 * @param scopeId
+	 */
+	void setScopeId(int scopeId) 
+	{
+		_scopeId = scopeId ;
+	}
+
 	//-----------------------------------------------------------------------------------------
     /**
      * Return the concrete component class instance. <br>
@@ -367,12 +485,27 @@ class ComponentDefinition<T>
     {
         if ( _bMonoInstance )
         {
-        	// "mono-instance" => reuse the single instance
-        	if ( _singleInstance == null )
+        	// "mono-instance" => reuse the single instance (a single volatile read once created)
+        	T instance = _singleInstance ;
+        	if ( instance == null )
         	{
-        		_singleInstance = createInstance(); // (_implementationClass);
+        		instance = createSingleInstance();
         	}
-        	return _singleInstance ;
+        	return instance ;
+        }
+        else if ( _scope != null )
+        {
+        	// Scoped => reuse the instance of the current scope context
+        	ScopeStorage storage = _scope.getStorage();
+        	Object scopeOwner = _container.getScopeOwner();
+        	@SuppressWarnings("unchecked")
+        	T instance = (T) storage.get(scopeOwner, _scopeId);
+        	if ( instance == null )
+        	{
+        		instance = createInstance();
+        		storage.put(scopeOwner, _scopeId, instance);
+        	}
+        	return instance ;
         }
         else
         {
@@ -381,6 +514,120 @@ class ComponentDefinition<T>
         }
     }
     
+	//-----------------------------------------------------------------------------------------
+    /**
+     * Creates the single instance if not yet done by another thread (double-checked under the creation lock)
+     * @return the single instance
+     */
+    private T createSingleInstance()
+    {
+    	_singleInstanceLock.lock();
+    	try
+    	{
+    		T instance = _singleInstance ;
+    		if ( instance == null )
+    		{
+    			instance = createInstance();
+    			_singleInstance = instance ;
+    		}
+    		return instance ;
+    	}
+    	finally
+    	{
+    		_singleInstanceLock.unlock();
+    	}
+    }
+    
+	//-----------------------------------------------------------------------------------------
+    /**
+     * Returns the dependency resolution plan of this component ( resolved at the first call ) <br>
+     * If several threads resolve the plan concurrently they get equivalent plans <br>
+     * ( the registry holds only one definition per class )
+     * @return
+     */
+    DependencyPlan getDependencyPlan()
+    {
+    	DependencyPlan plan = _dependencyPlan ;
+    	if ( plan == null ) 
+    	{
+    		plan = resolveDependencyPlan();
+    		_dependencyPlan = plan ;
+    	}
+    	return plan ;
+    }
+    
+	//-----------------------------------------------------------------------------------------
+    /**
+     * Resolves each constructor parameter and each field to be injected to its target component definition
+     * @return
+     */
+    private DependencyPlan resolveDependencyPlan()
+    {
+    	Class<?>[] constructorTypes = getConstructorDependencyTypes();
+    	Class<?>[] fieldTypes = getFieldDependencyTypes();
+    	if ( constructorTypes == null && fieldTypes == null ) {
+    		return DependencyPlan.NO_DEPENDENCY ;
+    	}
+    	
+    	//--- Constructor parameters
+    	ComponentDefinition<?>[] constructorDependencies = null ;
+    	if ( constructorTypes != null ) {
+    		constructorDependencies = new ComponentDefinition<?>[constructorTypes.length];
+    		for ( int i = 0 ; i < constructorTypes.length ; i++ ) {
+    			constructorDependencies[i] = _container.getComponentDefinition( constructorTypes[i] );
+    		}
+    	}
+    	
+    	//--- Fields to be injected
+    	ComponentDefinition<?>[] fieldDependencies = null ;
+    	if ( fieldTypes != null ) {
+    		fieldDependencies = new ComponentDefinition<?>[fieldTypes.length];
+    		for ( int i = 0 ; i < fieldTypes.length ; i++ ) {
+    			fieldDependencies[i] = _container.getComponentDefinition( fieldTypes[i] );
+    		}
+    	}
+    	
+    	return new DependencyPlan(constructorDependencies, fieldDependencies);
+    }
+    
+	//-----------------------------------------------------------------------------------------
+    /**
+     * Returns the types of the constructor parameters ( from the generated factory or from the constructor )
+     * @return the types, or null if no dependency
+     */
+    Class<?>[] getConstructorDependencyTypes()
+    {
+    	if ( _generatedFactory != null ) {
+    		Class<?>[] types = _generatedFactory.getConstructorDependencies();
+    		return ( types.length > 0 ? types : null ) ;
+    	}
+    	if ( _constructorWithDependencies != null ) {
+    		return _constructorWithDependencies.getParameterTypes();
+    	}
+    	return null ;
+    }
+    
+	//-----------------------------------------------------------------------------------------
+    /**
+     * Returns the types of the fields to be injected ( from the generated factory or from the field injectors )
+     * @return the types, or null if no dependency
+     */
+    Class<?>[] getFieldDependencyTypes()
+    {
+    	if ( _generatedFactory != null ) {
+    		Class<?>[] types = _generatedFactory.getFieldDependencies();
+    		return ( types.length > 0 ? types : null ) ;
+    	}
+    	if ( _fieldsToBeInjected != null ) {
+    		Class<?>[] types = new Class<?>[_fieldsToBeInjected.length];
+    		for ( int i = 0 ; i < _fieldsToBeInjected.length ; i++ ) {
+    			types[i] = _fieldsToBeInjected[i].getFieldType();
+    		}
+    		return types ;
+    	}
+    	return null ;
+    }
+    
 	//-----------------------------------------------------------------------------------------
     private T createInstance()
     {
@@ -391,17 +638,17 @@ class ComponentDefinition<T>
     		
     		//--- Is there at least one interceptor provider for this container ?
     		InterceptorProvider[] interceptorProviders = _container.getInterceptorProviders();
-    		if ( interceptorProviders != null ) {
-			
-        		//--- Create a dynamic proxy for interceptor notification
-        		InvocationHandler invocationHandler = new GenericInvocationHandler( newInstance, interceptorProviders );
-        		
-        		Class<?>[] interfaces = { _componentClass } ;
-        		Object proxy = Proxy.newProxyInstance(_componentClass.getClassLoader(), interfaces, invocationHandler ) ;
-        		
-        		@SuppressWarnings("unchecked")
-        		T proxyInstance = (T) proxy ;
-        		return proxyInstance ;
+    		if ( interceptorProviders != null && interceptorProviders.length > 0 ) {
+    			
+    			//--- Can an interceptor be called for this component ? ( pre-analysis with the first instance )
+    			InterceptorDispatchTable dispatchTable = getDispatchTable(newInstance, interceptorProviders);
+    			if ( dispatchTable.isInterceptionRequired() ) {
+    				
+	    			//--- Create a proxy for interceptor notification
+	        		@SuppressWarnings("unchecked")
+	        		T proxyInstance = (T) getProxyFactory().newProxy(newInstance, dispatchTable, _container.getLoggingPolicy());
+	        		return proxyInstance ;
+    			}
     		}
     	}
 		//--- Return the new instance as is, without dynamic proxy handler 
@@ -409,6 +656,57 @@ class ComponentDefinition<T>
     }
 	//-----------------------------------------------------------------------------------------
     /**
+     * Returns the interceptors dispatch table for the implementation class of the given instance <br>
+     * ( created and pre-analysed with the first instance of each implementation class )
+     * @param componentInstance
+     * @param interceptorProviders
+     * @return
+     */
+    private InterceptorDispatchTable getDispatchTable(Object componentInstance, InterceptorProvider[] interceptorProviders)
+    {
+    	Class<?> implementationClass = componentInstance.getClass();
+    	InterceptorDispatchTable dispatchTable = _dispatchTables.get(implementationClass);
+    	if ( dispatchTable == null ) {
+    		dispatchTable = new InterceptorDispatchTable(_componentClass, implementationClass, interceptorProviders, componentInstance, 
+    				_container.getAsyncEventDispatcher());
+    		InterceptorDispatchTable existing = _dispatchTables.putIfAbsent(implementationClass, dispatchTable);
+    		if ( existing != null ) {
+    			dispatchTable = existing ;
+    		}
+    	}
+    	return dispatchTable ;
+    }
+    
+	//-----------------------------------------------------------------------------------------
+    /**
+     * Returns the proxies factory for this component interface (created at the first call)
+     * @return
+     */
+    private ProxyFactory getProxyFactory()
+    {
+    	ProxyFactory proxyFactory = _proxyFactory ;
+    	if ( proxyFactory == null ) {
+    		_proxyFactoryLock.lock();
+    		try {
+    			proxyFactory = _proxyFactory ;
+    			if ( proxyFactory == null ) {
+    				if ( _container.getProxyEngine() == ProxyEngine.GENERATED && GeneratedProxyFactory.isSupported(_componentClass) ) {
+    					proxyFactory = new GeneratedProxyFactory(_componentClass);
+    				}
+    				else {
+    					proxyFactory = new JdkProxyFactory(_componentClass);
+    				}
+    				_proxyFactory = proxyFactory ;
+    			}
+    		} finally {
+    			_proxyFactoryLock.unlock();
+    		}
+    	}
+    	return proxyFactory ;
+    }
+    
+	//-----------------------------------------------------------------------------------------
+    /**
      * Creates a new component instance using the given class, with or without dependencies
      * @param componentClass
      * @return
@@ -422,6 +720,11 @@ class ComponentDefinition<T>
         	//--- There is a specific provider for this class
     		newInstance = _implementationProvider.get();
     	}
+    	else if ( _generatedFactory != null )
+    	{
+    		//--- Generated factory : constructor and fields without reflection
+    		return createWithGeneratedFactory();
+    	}
     	else
     	{    		
 	    	//--- Use the predefined constructor to create a new instance of the component
@@ -443,8 +746,9 @@ class ComponentDefinition<T>
 			
 		//--- 2) Dependency Injection by fields (if any)
 		if ( _fieldsToBeInjected != null ) {
-			for ( Field field : _fieldsToBeInjected ) {
-				injectField(newInstance, field);
+			ComponentDefinition<?>[] fieldDependencies = getDependencyPlan().getFieldDependencies();
+			for ( int i = 0 ; i < _fieldsToBeInjected.length ; i++ ) {
+				injectField(newInstance, _fieldsToBeInjected[i], fieldDependencies[i]);
 			}
 		}
 		return newInstance ;
@@ -458,15 +762,8 @@ class ComponentDefinition<T>
 	 */
 	private final T createWithDefaultConstructor(Class<? extends T> componentClass)
 	{
-    	T obj = null ;
-    	try {
-   			obj = componentClass.newInstance();
-		} catch (InstantiationException e) {
-            throw new InjectorException("Cannot create instance for class " + componentClass, e);
-		} catch (IllegalAccessException e) {
-            throw new InjectorException("Cannot create instance for class " + componentClass, e);
-		}
-		return obj ;
+		//--- Call the default constructor (through the prebuilt factory)
+		return _constructorFactory.newInstance(VOID_OBJECT_ARRAY) ;
 	}
 	
 	//-----------------------------------------------------------------------------------------
@@ -477,67 +774,82 @@ class ComponentDefinition<T>
 	 */
 	private final T createWithDependencies(Class<? extends T> componentClass)
 	{
-		Constructor<? extends T> constructor = _constructorWithDependencies ;
-		
-		//--- Get the constructor parameters instances
-		Class<?>[] paramTypes = constructor.getParameterTypes();
-		Object[] params = new Object[paramTypes.length];
-		for ( int i = 0 ; i < paramTypes.length ; i++ )
+		//--- Get the constructor parameters instances (from the resolved definitions)
+		ComponentDefinition<?>[] dependencies = getDependencyPlan().getConstructorDependencies();
+		Object[] params = new Object[dependencies.length];
+		for ( int i = 0 ; i < dependencies.length ; i++ )
 		{
-			//--- Use the container to get the required dependencies
-			params[i] = _container.getComponentInstance( paramTypes[i] );
+			params[i] = dependencies[i].getInstance();
 		}
 		
-		//--- Call the constructor with parameters		
-		T obj = null ;
-		try {
-			obj = constructor.newInstance(params);
-		} catch (IllegalArgumentException e) {
-            throw new InjectorException("Cannot create instance for class " + componentClass, e);
-		} catch (InstantiationException e) {
-            throw new InjectorException("Cannot create instance for class " + componentClass, e);
-		} catch (IllegalAccessException e) {
-            throw new InjectorException("Cannot create instance for class " + componentClass, e);
-		} catch (InvocationTargetException e) {
-            throw new InjectorException("Cannot create instance for class " + componentClass, e);
+		//--- Call the constructor with parameters (through the prebuilt factory)
+		return _constructorFactory.newInstance(params) ;
+	}
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Creates a new component instance using the generated factory ( constructor and fields injection )
+	 * @return
+	 */
+	private final T createWithGeneratedFactory()
+	{
+		DependencyPlan plan = getDependencyPlan();
+		T newInstance = _generatedFactory.newInstance( getInstances(plan.getConstructorDependencies()) );
+		ComponentDefinition<?>[] fieldDependencies = plan.getFieldDependencies();
+		if ( fieldDependencies.length > 0 ) {
+			_generatedFactory.injectFields(newInstance, getInstances(fieldDependencies) );
 		}
-		return obj ;
+		return newInstance ;
 	}
+	
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns an instance of each given component
+	 * @param dependencies
+	 * @return
+	 */
+	private final static Object[] getInstances(ComponentDefinition<?>[] dependencies)
+	{
+		if ( dependencies.length == 0 ) {
+			return VOID_OBJECT_ARRAY ;
+		}
+		Object[] instances = new Object[dependencies.length];
+		for ( int i = 0 ; i < dependencies.length ; i++ )
+		{
+			instances[i] = dependencies[i].getInstance();
+		}
+		return instances ;
+	}
+	
 	//-----------------------------------------------------------------------------------------
 	/**
 	 * Injects a instance in the component field
 	 * @param componentInstance
-	 * @param field
+	 * @param fieldInjector
+	 * @param fieldDependency the definition of the component to be injected
 	 */
-	private final void injectField(Object componentInstance, Field field)
+	private final void injectField(Object componentInstance, FieldInjector fieldInjector, ComponentDefinition<?> fieldDependency)
 	{
-		//--- Get the instance to be injected
-		Class<?> fieldType = field.getType();
-		Object instanceToBeInjected = _container.getComponentInstance( fieldType );
+		//--- Get the instance to be injected (from the resolved definition)
+		Object instanceToBeInjected = fieldDependency.getInstance();
 		
-		//--- Inject the instance in the field
-		field.setAccessible(true);
-		try {
-			field.set(componentInstance, instanceToBeInjected);
-		} catch (IllegalArgumentException e) {
-			throw new InjectorException("Cannot inject field '" + field.getName() + "' (IllegalArgumentException)", e);
-		} catch (IllegalAccessException e) {
-			throw new InjectorException("Cannot inject field '" + field.getName() + "' (IllegalAccessException)", e);
-		}
+		//--- Inject the instance in the field (through the prebuilt setter)
+		fieldInjector.inject(componentInstance, instanceToBeInjected);
 	}
 	
 	//-----------------------------------------------------------------------------------------
 	@Override
 	public String toString() 
 	{
-		String sSingleton = "singleton = " + ( _bMonoInstance ? "true" : "false" ) ;
+		String sSingleton = "singleton = " + ( _bMonoInstance ? "true" : "false" ) 
+				+ ( _scope != null ? ", scope = " + _scope.getClass().getSimpleName() : "" ) ;
 		String sImplem = "" ;
 		if ( _implementationProvider != null ) {
 			sImplem = "implementation provider = '" + _implementationProvider.getClass().getCanonicalName() + "'" ;
 		}
 		else {
 			if ( _implementationClass != null ) {
-				sImplem = "implementation class = '" + _implementationClass.getCanonicalName() + "'" ;
+				sImplem = "implementation class = '" + _implementationClass.getCanonicalName() + "'" 
+						+ ( _generatedFactory != null ? " (generated factory)" : "" ) ;
 			}
 		}
 		return _componentClass.getCanonicalName() + " : " + sImplem + ", " + sSingleton ;
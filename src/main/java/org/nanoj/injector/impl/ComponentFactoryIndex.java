@@ -0,0 +1,140 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.spi.ComponentFactory;
+
+/**
+ * Index of the component factories generated at compile time ( see ComponentFactory ) <br>
+ * <br>
+ * All the 'META-INF/nanoj/factories' resources visible by the injector class loader are read only once 
+ * ( at the first use ), each line gives the factory of an implementation class : <br>
+ * 'implementation.class.Name=factory.class.Name' ( '#' for comments ) <br>
+ * Each factory is created once, at the first request for its implementation class <br>
+ * If there's no factory for a class ( or if the index is not consistent ) the injector uses reflection
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class ComponentFactoryIndex {
+
+	final static String FACTORIES_RESOURCE = "META-INF/nanoj/factories" ;
+
+	/**
+	 * The index shared by all the injectors ( loaded at the first call of 'getInstance' )
+	 */
+	private final static class Holder {
+		private final static ComponentFactoryIndex INSTANCE = new ComponentFactoryIndex(InjectorImpl.class.getClassLoader());
+	}
+
+	/**
+	 * The factory class name for each implementation class name
+	 */
+	private final Map<String, String>  factoryClassNames ;
+
+	/**
+	 * The factories already created ( for each implementation class )
+	 */
+	private final ConcurrentHashMap<Class<?>, ComponentFactory<?>> factories = new ConcurrentHashMap<Class<?>, ComponentFactory<?>>();
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the index of the factories visible by the injector class loader
+	 * @return
+	 */
+	static ComponentFactoryIndex getInstance() {
+		return Holder.INSTANCE ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param classLoader the class loader used to find the index resources
+	 */
+	ComponentFactoryIndex(ClassLoader classLoader) {
+		super();
+		this.factoryClassNames = new HashMap<String, String>();
+		for ( Entry<String, List<String>> entry : IndexReader.read(classLoader, FACTORIES_RESOURCE).entrySet() ) {
+			//--- If a class is defined more than once the first factory is kept
+			this.factoryClassNames.put(entry.getKey(), entry.getValue().get(0));
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the generated factory for the given implementation class, or null if none
+	 * @param implementationClass
+	 * @return
+	 */
+	<T> ComponentFactory<T> getFactory(Class<T> implementationClass) {
+		if ( factoryClassNames.isEmpty() ) {
+			return null ;
+		}
+		@SuppressWarnings("unchecked")
+		ComponentFactory<T> factory = (ComponentFactory<T>) factories.get(implementationClass);
+		if ( factory == null ) {
+			String factoryClassName = factoryClassNames.get(implementationClass.getName());
+			if ( factoryClassName == null ) {
+				return null ;
+			}
+			factory = createFactory(implementationClass, factoryClassName);
+			if ( factory == null ) {
+				return null ;
+			}
+			//--- If created concurrently by another thread : equivalent factories ( stateless )
+			factories.putIfAbsent(implementationClass, factory);
+		}
+		return factory ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Creates the factory for the given implementation class <br>
+	 * ( the factory class is loaded with the class loader of the implementation class : same package )
+	 * @param implementationClass
+	 * @param factoryClassName
+	 * @return the factory, or null if the index is not consistent with the classes ( e.g. stale index )
+	 */
+	private <T> ComponentFactory<T> createFactory(Class<T> implementationClass, String factoryClassName) {
+		Object factory ;
+		try {
+			Class<?> factoryClass = Class.forName(factoryClassName, true, implementationClass.getClassLoader());
+			factory = factoryClass.getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			return null ;
+		} catch (LinkageError e) {
+			return null ;
+		} catch (ReflectiveOperationException e) {
+			throw new InjectorException("Cannot create component factory " + factoryClassName, e);
+		}
+		if ( ! ( factory instanceof ComponentFactory ) ) {
+			throw new InjectorException("Class " + factoryClassName + " is not a ComponentFactory");
+		}
+		@SuppressWarnings("unchecked")
+		ComponentFactory<T> componentFactory = (ComponentFactory<T>) factory ;
+		if ( componentFactory.getComponentClass() != implementationClass ) {
+			return null ;
+		}
+		return componentFactory ;
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Dependency graph of the components reachable from a set of root components <br>
+ * <br>
+ * Built by walking the dependencies from the roots ( each dependency resolved individually ). <br>
+ * All the wiring errors are collected during the walk : <br>
+ * . missing implementation or provider <br>
+ * . constructor that cannot be determined ( e.g. several constructors with "@Inject" ) <br>
+ * . dependency cycle ( not supported by the container, by constructor or by field ) <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class ComponentGraph {
+
+	private final InjectorImpl container ;
+
+	/**
+	 * All the components of the graph, each one after its dependencies
+	 */
+	private final LinkedList<ComponentDefinition<?>> definitions = new LinkedList<ComponentDefinition<?>>();
+
+	/**
+	 * The components already visited ( identity : one definition per class in a container )
+	 */
+	private final HashSet<ComponentDefinition<?>> visited = new HashSet<ComponentDefinition<?>>();
+
+	/**
+	 * The components in the current path ( for cycles detection )
+	 */
+	private final LinkedList<ComponentDefinition<?>> currentPath = new LinkedList<ComponentDefinition<?>>();
+
+	/**
+	 * The wiring errors found in the graph
+	 */
+	private final LinkedList<String> errors = new LinkedList<String>();
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor : walks and validates the graph
+	 * @param container
+	 * @param rootComponents
+	 */
+	ComponentGraph(InjectorImpl container, Class<?>[] rootComponents) {
+		super();
+		this.container = container ;
+		for ( Class<?> rootComponent : rootComponents ) {
+			ComponentDefinition<?> definition = null ;
+			try {
+				definition = container.getComponentDefinition(rootComponent);
+			} catch (RuntimeException e) {
+				errors.add("Root component '" + rootComponent.getName() + "' : " + e.getMessage() );
+			}
+			if ( definition != null ) {
+				visit(definition);
+			}
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Visits the given component and its dependencies (depth first)
+	 * @param definition
+	 */
+	private void visit(ComponentDefinition<?> definition) {
+		if ( currentPath.contains(definition) ) {
+			errors.add("Dependency cycle : " + getPath(definition) );
+			return ;
+		}
+		if ( visited.contains(definition) ) {
+			return ;
+		}
+		visited.add(definition);
+
+		//--- Resolve each dependency of this component ( each missing dependency is reported )
+		LinkedList<ComponentDefinition<?>> dependencies = new LinkedList<ComponentDefinition<?>>();
+		resolveDependencies(definition, definition.getConstructorDependencyTypes(), dependencies);
+		resolveDependencies(definition, definition.getFieldDependencyTypes(), dependencies);
+
+		//--- Visit the dependencies
+		currentPath.addLast(definition);
+		for ( ComponentDefinition<?> dependency : dependencies ) {
+			visit(dependency);
+		}
+		currentPath.removeLast();
+
+		//--- All the dependencies are before the component
+		definitions.add(definition);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Resolves the given dependency types one by one : a failure is recorded and the next types are still resolved
+	 * @param definition the component having these dependencies
+	 * @param types the dependency types ( or null if none )
+	 * @param dependencies the list where to add the resolved dependencies
+	 */
+	private void resolveDependencies(ComponentDefinition<?> definition, Class<?>[] types, List<ComponentDefinition<?>> dependencies) {
+		if ( types != null ) {
+			for ( Class<?> type : types ) {
+				try {
+					dependencies.add( container.getComponentDefinition(type) );
+				} catch (RuntimeException e) {
+					errors.add("Component '" + definition.getComponentClass().getName() + "' ( " + getPath(definition) 
+							+ " ) : dependency '" + type.getName() + "' : " + e.getMessage() );
+				}
+			}
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the current path ending with the given component ( e.g. "A -> B -> C" )
+	 * @param definition
+	 * @return
+	 */
+	private String getPath(ComponentDefinition<?> definition) {
+		StringBuilder sb = new StringBuilder();
+		for ( ComponentDefinition<?> d : currentPath ) {
+			sb.append( d.getComponentClass().getSimpleName() ).append(" -> ");
+		}
+		sb.append( definition.getComponentClass().getSimpleName() );
+		return sb.toString();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns all the components of the graph, each one after its dependencies
+	 * @return
+	 */
+	List<ComponentDefinition<?>> getDefinitions() {
+		return definitions ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the components of the graph grouped by dependency level <br>
+	 * Level 0 : components without dependency, level N : components depending at most on level N-1 components <br>
+	 * The components of a same level are independent of each other
+	 * @return the list of levels ( from level 0 )
+	 */
+	List<List<ComponentDefinition<?>>> getLevels() {
+		HashMap<ComponentDefinition<?>, Integer> levelsMap = new HashMap<ComponentDefinition<?>, Integer>();
+		ArrayList<List<ComponentDefinition<?>>> levels = new ArrayList<List<ComponentDefinition<?>>>();
+		//--- Each definition is after its dependencies => their levels are already known
+		for ( ComponentDefinition<?> definition : definitions ) {
+			int level = 0 ;
+			DependencyPlan plan = definition.getDependencyPlan() ;
+			level = Math.max(level, getNextLevel(levelsMap, plan.getConstructorDependencies()) );
+			level = Math.max(level, getNextLevel(levelsMap, plan.getFieldDependencies()) );
+			levelsMap.put(definition, level);
+			while ( levels.size() <= level ) {
+				levels.add( new LinkedList<ComponentDefinition<?>>() );
+			}
+			levels.get(level).add(definition);
+		}
+		return levels ;
+	}
+
+	private int getNextLevel(HashMap<ComponentDefinition<?>, Integer> levelsMap, ComponentDefinition<?>[] dependencies) {
+		int level = 0 ;
+		for ( ComponentDefinition<?> dependency : dependencies ) {
+			level = Math.max(level, levelsMap.get(dependency) + 1 );
+		}
+		return level ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if at least one wiring error has been found
+	 * @return
+	 */
+	boolean hasErrors() {
+		return ! errors.isEmpty() ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns a report of all the wiring errors ( one line per error )
+	 * @return
+	 */
+	String getErrorsReport() {
+		StringBuilder sb = new StringBuilder();
+		sb.append( errors.size() ).append(" error(s) in the components graph of injector '").append( container.getName() ).append("'");
+		for ( String error : errors ) {
+			sb.append("\n - ").append(error);
+		}
+		return sb.toString();
+	}
+}
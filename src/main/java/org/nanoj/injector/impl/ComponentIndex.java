@@ -0,0 +1,92 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Index of the implementation classes known at compile time ( see 'nanoj-injector-processor' ) <br>
+ * <br>
+ * All the 'META-INF/nanoj/components' resources visible by the injector class loader are read only once 
+ * ( at the first use ), each line gives an implementation of an interface or abstract class : <br>
+ * 'interface.class.Name=implementation.class.Name' ( a line for each implementation ) <br>
+ * <br>
+ * An interface listed in the index is resolved with the index only : the convention patterns are checked 
+ * against its implementations, the class loader is never probed for a class that does not exist <br>
+ * An interface not listed in the index ( implementations compiled without the processor ) is resolved 
+ * by loading each class name given by the conventions <br>
+ * A partial index must be declared ( see InjectorConfiguration.definePartialComponentIndex ) : the other class 
+ * names given by the conventions are then loaded if no indexed implementation matches
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class ComponentIndex {
+
+	final static String COMPONENTS_RESOURCE = "META-INF/nanoj/components" ;
+
+	/**
+	 * The index shared by all the injectors ( loaded at the first call of 'getInstance' )
+	 */
+	private final static class Holder {
+		private final static ComponentIndex INSTANCE = new ComponentIndex(InjectorImpl.class.getClassLoader());
+	}
+
+	/**
+	 * The implementation class names for each interface class name ( read only once built )
+	 */
+	private final Map<String, Set<String>> implementations ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the index of the implementations visible by the injector class loader
+	 * @return
+	 */
+	static ComponentIndex getInstance() {
+		return Holder.INSTANCE ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param classLoader the class loader used to find the index resources
+	 */
+	ComponentIndex(ClassLoader classLoader) {
+		super();
+		this.implementations = new HashMap<String, Set<String>>();
+		for ( Entry<String, List<String>> entry : IndexReader.read(classLoader, COMPONENTS_RESOURCE).entrySet() ) {
+			this.implementations.put(entry.getKey(), new HashSet<String>(entry.getValue()));
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the names of the implementation classes of the given interface ( or abstract class )
+	 * @param interfaceClass
+	 * @return the class names, or null if the interface is not in the index
+	 */
+	Set<String> getImplementations(Class<?> interfaceClass) {
+		if ( implementations.isEmpty() ) {
+			return null ;
+		}
+		return implementations.get(interfaceClass.getName());
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nanoj.injector.InjectorException;
+
+/**
+ * Thread-safe registry of the component definitions held by an injector <br>
+ * <br>
+ * The read path is lock-free ( a single lookup in a concurrent map ) <br>
+ * A definition is created at most once per key : the first thread runs the creation task, <br>
+ * the other threads requesting the same key wait for the result of this task ( per-key future ) <br>
+ * If the creation fails the key is released, so that the next request can try again <br>
+ * The scoped components get an id in the scope storages when they are registered ( compact ids for each injector ) <br>
+ * The instances are kept in the storages under the scope owner of the registry ( see getScopeOwner ) <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+class ComponentRegistry {
+
+	/**
+	 * The resolved component definitions, indexed by component class <br>
+	 * ( a Class key has an identity hash code and equality : no string hashing on lookup )
+	 */
+	private final ConcurrentHashMap<Class<?>, ComponentDefinition<?>> definitions =
+			new ConcurrentHashMap<Class<?>, ComponentDefinition<?>>(128);
+
+	/**
+	 * The component definitions currently in creation ( one future per key )
+	 */
+	private final ConcurrentHashMap<Class<?>, FutureTask<ComponentDefinition<?>>> pendingDefinitions =
+			new ConcurrentHashMap<Class<?>, FutureTask<ComponentDefinition<?>>>();
+
+	/**
+	 * Next id for the registered scoped components 
+	 */
+	private final AtomicInteger scopedComponentsCounter = new AtomicInteger();
+
+	/**
+	 * Key of this registry in the scope storages ( replaced when the scoped instances are released )
+	 */
+	private volatile Object scopeOwner = new Object();
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the key of the scoped instances in the scope storages <br>
+	 * ( a plain object : the storages do not reference the injector )
+	 * @return
+	 */
+	Object getScopeOwner() {
+		return scopeOwner ;
+	}
+
+	/**
+	 * Releases the scoped instances kept in all the scope storages ( of all the threads ) <br>
+	 * The previous key is no longer referenced : the storages drop its instances ( weak keys ) 
+	 */
+	void releaseScopedInstances() {
+		scopeOwner = new Object();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the component definition registered for the given key, or null if none (lock-free)
+	 * @param key
+	 * @return
+	 */
+	ComponentDefinition<?> get(Class<?> key) {
+		return definitions.get(key);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the component definition registered for the given key <br>
+	 * If not yet registered, the definition is created with the given task and registered <br>
+	 * The creation task is executed only once even if several threads request the same key concurrently
+	 * @param key
+	 * @param creationTask
+	 * @return the component definition (never null)
+	 */
+	ComponentDefinition<?> getOrCreate(Class<?> key, Callable<ComponentDefinition<?>> creationTask) {
+
+		//--- Fast path : definition already registered
+		ComponentDefinition<?> definition = definitions.get(key);
+		if ( definition != null ) {
+			return definition ;
+		}
+
+		//--- Slow path : register a future for this key ( or get the future registered by another thread )
+		FutureTask<ComponentDefinition<?>> newFuture =
+				new FutureTask<ComponentDefinition<?>>( new RegistrationTask(key, creationTask) );
+		FutureTask<ComponentDefinition<?>> future = pendingDefinitions.putIfAbsent(key, newFuture);
+		if ( future == null ) {
+			//--- This thread is in charge of the creation
+			future = newFuture ;
+			try {
+				future.run();
+			}
+			finally {
+				//--- Done (successfully or not) : the key is released
+				pendingDefinitions.remove(key, future);
+			}
+		}
+		return getResult(key, future);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns all the registered component definitions
+	 * @return
+	 */
+	Collection<ComponentDefinition<?>> getAll() {
+		return definitions.values();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Waits for the end of the creation task and returns its result <br>
+	 * The exception thrown by the task (if any) is propagated as is if it's an unchecked exception
+	 * @param key
+	 * @param future
+	 * @return
+	 */
+	private ComponentDefinition<?> getResult(Class<?> key, FutureTask<ComponentDefinition<?>> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InjectorException("Interrupted while waiting for component definition '" + key.getName() + "'", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause ;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause ;
+			}
+			throw new InjectorException("Cannot create component definition '" + key.getName() + "'", cause);
+		}
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Task executed by the future : creates the definition (if not already done) and registers it <br>
+	 * The definition is registered before the key is released from the pending futures
+	 */
+	private class RegistrationTask implements Callable<ComponentDefinition<?>> {
+
+		private final Class<?> key ;
+
+		private final Callable<ComponentDefinition<?>> creationTask ;
+
+		RegistrationTask(Class<?> key, Callable<ComponentDefinition<?>> creationTask) {
+			super();
+			this.key = key ;
+			this.creationTask = creationTask ;
+		}
+
+		public ComponentDefinition<?> call() throws Exception {
+			//--- Registered by another thread in the meantime ?
+			ComponentDefinition<?> definition = definitions.get(key);
+			if ( definition == null ) {
+				definition = creationTask.call();
+				if ( definition.isScoped() ) {
+					definition.setScopeId(scopedComponentsCounter.getAndIncrement());
+				}
+				definitions.put(key, definition);
+			}
+			return definition ;
+		}
+	}
+}
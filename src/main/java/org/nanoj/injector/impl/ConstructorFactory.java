@@ -0,0 +1,87 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+import org.nanoj.injector.InjectorException;
+
+/**
+ * Instance factory built once for a component constructor <br>
+ * <br>
+ * The constructor is converted into a MethodHandle adapted to the generic signature "(Object[])Object" <br>
+ * Each instantiation is then a direct invocation of this handle <br>
+ * ( no access check and no reflective call as with 'Class.newInstance' or 'Constructor.newInstance' )
+ *
+ * @author Laurent Guerin
+ *
+ * @param <T>
+ */
+final class ConstructorFactory<T> {
+
+	private final static MethodType GENERIC_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+	/**
+	 * The class of the instances created by this factory
+	 */
+	private final Class<?>      implementationClass ;
+
+	/**
+	 * The constructor handle with the generic signature "(Object[])Object"
+	 */
+	private final MethodHandle  constructorHandle ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param constructor the constructor to be used for each instantiation
+	 */
+	ConstructorFactory(Constructor<? extends T> constructor) {
+		super();
+		this.implementationClass = constructor.getDeclaringClass() ;
+		MethodHandle handle ;
+		try {
+			handle = MethodHandles.lookup().unreflectConstructor(constructor);
+		} catch (IllegalAccessException e) {
+			throw new InjectorException("Cannot create instance for class " + implementationClass + " : constructor not accessible", e);
+		}
+		int parametersCount = constructor.getParameterTypes().length ;
+		this.constructorHandle = handle.asSpreader(Object[].class, parametersCount).asType(GENERIC_TYPE);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Creates a new instance with the given constructor parameters
+	 * @param parameters the constructor parameters ( void array for a default constructor )
+	 * @return
+	 */
+	T newInstance(Object[] parameters) {
+		Object obj = null ;
+		try {
+			obj = (Object) constructorHandle.invokeExact(parameters);
+		} catch (Error e) {
+			throw e ;
+		} catch (Throwable e) {
+            throw new InjectorException("Cannot create instance for class " + implementationClass, e);
+		}
+		@SuppressWarnings("unchecked")
+		T instance = (T) obj ;
+		return instance ;
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Result of the convention lookup for an interface ( implementation class found or not ) <br>
+ * <br>
+ * Kept in a ClassValue of the interface : the implementation class is only weakly referenced, 
+ * so that a cached result never retains the class loader of the implementation ( e.g. a plugin unloaded ) 
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class ConventionLookup {
+
+	/**
+	 * Result for an interface without implementation class ( no convention matches )
+	 */
+	final static ConventionLookup NOT_FOUND = new ConventionLookup(null);
+
+	private final WeakReference<Class<?>> implementationClass ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the result for the given implementation class 
+	 * @param implementationClass the class found, or null if none
+	 * @return
+	 */
+	static ConventionLookup of(Class<?> implementationClass) {
+		return implementationClass != null ? new ConventionLookup(implementationClass) : NOT_FOUND ;
+	}
+
+	private ConventionLookup(Class<?> implementationClass) {
+		super();
+		this.implementationClass = ( implementationClass != null ? new WeakReference<Class<?>>(implementationClass) : null ) ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns true if no implementation class has been found for the interface
+	 * @return
+	 */
+	boolean isNotFound() {
+		return implementationClass == null ;
+	}
+
+	/**
+	 * Returns the implementation class found, or null if not found or if the class has been unloaded
+	 * @return
+	 */
+	Class<?> getImplementationClass() {
+		return implementationClass != null ? implementationClass.get() : null ;
+	}
+}
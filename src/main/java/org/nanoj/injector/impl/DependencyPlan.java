@@ -0,0 +1,76 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+/**
+ * Immutable dependency resolution plan of a component <br>
+ * <br>
+ * Each constructor parameter and each field to be injected is resolved only once to its target component definition <br>
+ * The instantiations walk this plan directly ( no registry lookup ) <br>
+ * NB : the arrays are shared, they must never be modified
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class DependencyPlan {
+
+	private final static ComponentDefinition<?>[] VOID_DEFINITION_ARRAY = new ComponentDefinition<?>[0];
+
+	/**
+	 * Plan for a component without dependency
+	 */
+	final static DependencyPlan NO_DEPENDENCY = new DependencyPlan(VOID_DEFINITION_ARRAY, VOID_DEFINITION_ARRAY);
+
+	/**
+	 * The definitions of the constructor parameters ( in the parameters order )
+	 */
+	private final ComponentDefinition<?>[] constructorDependencies ;
+
+	/**
+	 * The definitions of the fields to be injected ( in the same order as the fields injectors )
+	 */
+	private final ComponentDefinition<?>[] fieldDependencies ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param constructorDependencies
+	 * @param fieldDependencies
+	 */
+	DependencyPlan(ComponentDefinition<?>[] constructorDependencies, ComponentDefinition<?>[] fieldDependencies) {
+		super();
+		this.constructorDependencies = ( constructorDependencies != null ? constructorDependencies : VOID_DEFINITION_ARRAY ) ;
+		this.fieldDependencies       = ( fieldDependencies != null ? fieldDependencies : VOID_DEFINITION_ARRAY ) ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the definitions of the constructor parameters ( void array if none )
+	 * @return
+	 */
+	ComponentDefinition<?>[] getConstructorDependencies() {
+		return constructorDependencies ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the definitions of the fields to be injected ( void array if none )
+	 * @return
+	 */
+	ComponentDefinition<?>[] getFieldDependencies() {
+		return fieldDependencies ;
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.nanoj.injector.InjectorException;
+
+/**
+ * Injector for a field with an "@Inject" annotation <br>
+ * <br>
+ * The field is made accessible and converted into a setter MethodHandle only once <br>
+ * ( with the generic signature "(Object,Object)void" ) <br>
+ * Each injection is then a direct invocation of this handle
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class FieldInjector {
+
+	private final static MethodType GENERIC_SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * The field to be injected
+	 */
+	private final Field         field ;
+
+	/**
+	 * The setter handle with the generic signature "(Object,Object)void"
+	 */
+	private final MethodHandle  setterHandle ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor
+	 * @param field the field to be injected
+	 */
+	FieldInjector(Field field) {
+		super();
+		this.field = field ;
+		//--- Accessibility set only once (for all the future injections)
+		field.setAccessible(true);
+		MethodHandle handle ;
+		try {
+			handle = MethodHandles.lookup().unreflectSetter(field);
+		} catch (IllegalAccessException e) {
+			throw new InjectorException("Cannot inject field '" + field.getName() + "' (IllegalAccessException)", e);
+		}
+		if ( Modifier.isStatic( field.getModifiers() ) ) {
+			//--- Static field : the instance is ignored
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		this.setterHandle = handle.asType(GENERIC_SETTER_TYPE);
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the field to be injected
+	 * @return
+	 */
+	Field getField() {
+		return field ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the type of the field to be injected
+	 * @return
+	 */
+	Class<?> getFieldType() {
+		return field.getType() ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Injects the given value in the field of the given component instance
+	 * @param componentInstance
+	 * @param value
+	 */
+	void inject(Object componentInstance, Object value) {
+		try {
+			setterHandle.invokeExact(componentInstance, value);
+		} catch (ClassCastException e) {
+			throw new InjectorException("Cannot inject field '" + field.getName() + "' (ClassCastException)", e);
+		} catch (Error e) {
+			throw e ;
+		} catch (Throwable e) {
+			throw new InjectorException("Cannot inject field '" + field.getName() + "'", e);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.nanoj.injector.InjectorException;
+
+/**
+ * Reader of the index resources generated at compile time ( 'META-INF/nanoj/...' ) <br>
+ * <br>
+ * An index resource contains lines 'key=value' ( '#' for comments ), a key can be defined on several lines <br>
+ * All the resources with the same name ( one in each jar ) are merged 
+ *
+ * @author Laurent Guerin
+ *
+ */
+final class IndexReader {
+
+	private IndexReader() {
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Reads all the index resources with the given name 
+	 * @param classLoader
+	 * @param resourceName
+	 * @return the values of each key, in the reading order ( void map if no resource )
+	 */
+	static Map<String, List<String>> read(ClassLoader classLoader, String resourceName) {
+		Map<String, List<String>> index = new HashMap<String, List<String>>();
+		if ( classLoader == null ) {
+			return index ;
+		}
+		try {
+			Enumeration<URL> resources = classLoader.getResources(resourceName);
+			while ( resources.hasMoreElements() ) {
+				readResource(resources.nextElement(), index);
+			}
+		} catch (IOException e) {
+			throw new InjectorException("Cannot read index resource " + resourceName, e);
+		}
+		return index ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	private static void readResource(URL url, Map<String, List<String>> index) throws IOException {
+		InputStream is = url.openStream();
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+			String line ;
+			while ( ( line = reader.readLine() ) != null ) {
+				line = line.trim();
+				if ( line.length() == 0 || line.startsWith("#") ) {
+					continue ;
+				}
+				int i = line.indexOf('=');
+				if ( i <= 0 ) {
+					throw new InjectorException("Invalid line '" + line + "' in " + url );
+				}
+				String key   = line.substring(0, i).trim();
+				String value = line.substring(i + 1).trim();
+				List<String> values = index.get(key);
+				if ( values == null ) {
+					values = new LinkedList<String>();
+					index.put(key, values);
+				}
+				if ( ! values.contains(value) ) {
+					values.add(value);
+				}
+			}
+		} finally {
+			is.close();
+		}
+	}
+}
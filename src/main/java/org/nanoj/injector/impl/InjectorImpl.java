@@ -20,15 +20,31 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.inject.Provider;
 
+import org.nanoj.injector.AsyncOverflowPolicy;
 import org.nanoj.injector.Injector;
 import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.ProxyEngine;
 import org.nanoj.injector.aop.InterceptorProvider;
+import org.nanoj.injector.dynaproxy.AsyncEventDispatcher;
+import org.nanoj.injector.scope.ComponentScope;
+import org.nanoj.injector.scope.ThreadScope;
+import org.nanoj.injector.scope.ThreadScoped;
+import org.nanoj.injector.spi.ComponentFactory;
 import org.nanoj.injector.tools.ClassTools;
+import org.nanoj.injector.tools.ConventionPattern;
 import org.nanoj.util.ConsoleLoggerProvider;
 
 /**
@@ -58,23 +74,62 @@ public class InjectorImpl implements Injector {
 	private final String name;
 
 	/**
-	 * Components held by the container, accessible by their class name Key :
-	 * Component class or interface name (String class) Value : The component
-	 * descriptor (Component class)
+	 * Components held by the container, accessible by their class Key :
+	 * Component class or interface Value : The component
+	 * descriptor (Component class) <br>
+	 * Thread-safe : lock-free read path and at-most-once creation for each definition
 	 */
-	private final HashMap<String, ComponentDefinition<?>>   componentsMap = new HashMap<String, ComponentDefinition<?>>(128);
+	private final ComponentRegistry   componentsRegistry = new ComponentRegistry();
 
 	//---------------------------------------------------------------------------------
 	// Configuration 
 	//---------------------------------------------------------------------------------
 	private final HashMap<Class<?>, Class<?>>     implementationClasses;
 	
-	private final String[]                        implementationConventions ;
+	private final ConventionPattern[]             implementationConventions ;
 	
 	private final HashMap<Class<?>, Provider<?>>  implementationProviders ;
 	
 	//private final InterceptorProvider             interceptorProvider ;
 	private final InterceptorProvider[]           interceptorProviders ;
+	
+	private final LoggingPolicy                   loggingPolicy ;
+	
+	private final ProxyEngine                     proxyEngine ;
+	
+	private final AsyncEventDispatcher            asyncEventDispatcher ;
+	
+	/**
+	 * The scopes for each scope annotation ( other than @Singleton )
+	 */
+	private final HashMap<Class<? extends Annotation>, ComponentScope> scopes ;
+	
+	/**
+	 * The implementation classes known at compile time ( used to resolve the conventions without class loading probes )
+	 */
+	private final ComponentIndex                  componentIndex ;
+	
+	/**
+	 * True if the component index can be partial ( convention names not indexed are loaded if no indexed implementation matches )
+	 */
+	private final boolean                         partialComponentIndex ;
+	
+	/**
+	 * The results of the convention lookups for each interface ( implementation found or not ) <br>
+	 * A ClassValue : each result is dropped with its interface class ( class loader unloaded ) 
+	 */
+	private final ClassValue<ConventionLookup>    conventionLookups = new ClassValue<ConventionLookup>() {
+		@Override
+		protected ConventionLookup computeValue(Class<?> interfaceClass) {
+			return ConventionLookup.of( findImplementationClassByConvention(interfaceClass) );
+		}
+	};
+	
+	/**
+	 * Logging flags resolved once from the logging policy ( used to guard the messages building )
+	 */
+	private final boolean                         lifecycleLogEnabled ;
+	private final boolean                         traceLogEnabled ;
 
 	//---------------------------------------------------------------------------------
 	/**
@@ -91,6 +146,55 @@ public class InjectorImpl implements Injector {
 			String[]                        implementationConventions,
 			HashMap<Class<?>, Provider<?>>  implementationProviders,
 			InterceptorProvider[]           interceptorProviders ) {
+		this(name, implementationClasses, implementationConventions, implementationProviders, interceptorProviders, 
+				LoggingPolicy.LIFECYCLE);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param name
+	 * @param implementationClasses 
+	 * @param implementationConventions
+	 * @param implementationProviders
+	 * @param interceptorProviders
+	 * @param loggingPolicy
+	 */
+	public InjectorImpl(String name, 
+			HashMap<Class<?>, Class<?>>     implementationClasses, 
+			String[]                        implementationConventions,
+			HashMap<Class<?>, Provider<?>>  implementationProviders,
+			InterceptorProvider[]           interceptorProviders,
+			LoggingPolicy                   loggingPolicy ) {
+		this(name, implementationClasses, parse(implementationConventions), implementationProviders, interceptorProviders, 
+				loggingPolicy, ProxyEngine.JDK, new AsyncEventDispatcher(name, 1024, AsyncOverflowPolicy.DROP), 
+				getDefaultScopes(), false);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param name
+	 * @param implementationClasses 
+	 * @param implementationConventions
+	 * @param implementationProviders
+	 * @param interceptorProviders
+	 * @param loggingPolicy
+	 * @param proxyEngine
+	 * @param asyncEventDispatcher
+	 * @param scopes the scopes for each scope annotation
+	 * @param partialComponentIndex true if the component index can be partial
+	 */
+	public InjectorImpl(String name, 
+			HashMap<Class<?>, Class<?>>     implementationClasses, 
+			ConventionPattern[]             implementationConventions,
+			HashMap<Class<?>, Provider<?>>  implementationProviders,
+			InterceptorProvider[]           interceptorProviders,
+			LoggingPolicy                   loggingPolicy,
+			ProxyEngine                     proxyEngine,
+			AsyncEventDispatcher            asyncEventDispatcher,
+			HashMap<Class<? extends Annotation>, ComponentScope> scopes,
+			boolean                         partialComponentIndex ) {
 		super();
 		this.name = name ;
 
@@ -99,6 +203,14 @@ public class InjectorImpl implements Injector {
 		this.implementationConventions = implementationConventions ;
 		this.implementationProviders   = implementationProviders ;
 		this.interceptorProviders      = interceptorProviders ;
+		this.loggingPolicy             = loggingPolicy ;
+		this.lifecycleLogEnabled       = loggingPolicy.isLifecycleEnabled() ;
+		this.traceLogEnabled           = loggingPolicy.isTraceEnabled() ;
+		this.proxyEngine               = proxyEngine ;
+		this.asyncEventDispatcher      = asyncEventDispatcher ;
+		this.scopes                    = scopes ;
+		this.componentIndex            = ComponentIndex.getInstance() ;
+		this.partialComponentIndex     = partialComponentIndex ;
 	}
 	
 
@@ -116,6 +228,73 @@ public class InjectorImpl implements Injector {
 		return this.interceptorProviders ;
 	}
 
+	/**
+	 * Returns the logging policy of this injector
+	 * @return
+	 */
+	public LoggingPolicy getLoggingPolicy() {
+		return this.loggingPolicy ;
+	}
+
+	/**
+	 * Returns the engine used to create the proxies of the intercepted components
+	 * @return
+	 */
+	public ProxyEngine getProxyEngine() {
+		return this.proxyEngine ;
+	}
+
+	private static ConventionPattern[] parse(String[] patterns) {
+		ConventionPattern[] conventionPatterns = new ConventionPattern[patterns.length];
+		for ( int i = 0 ; i < patterns.length ; i++ ) {
+			conventionPatterns[i] = new ConventionPattern(patterns[i]);
+		}
+		return conventionPatterns ;
+	}
+
+	private static HashMap<Class<? extends Annotation>, ComponentScope> getDefaultScopes() {
+		HashMap<Class<? extends Annotation>, ComponentScope> scopes = new HashMap<Class<? extends Annotation>, ComponentScope>();
+		scopes.put(ThreadScoped.class, new ThreadScope());
+		return scopes ;
+	}
+
+	/**
+	 * Returns the dispatcher of the asynchronous interceptors events
+	 * @return
+	 */
+	public AsyncEventDispatcher getAsyncEventDispatcher() {
+		return this.asyncEventDispatcher ;
+	}
+
+	/**
+	 * Returns the key of this injector in the scope storages <br>
+	 * ( the storages do not reference the injector itself, see ScopeStorage )
+	 * @return
+	 */
+	public Object getScopeOwner() {
+		return this.componentsRegistry.getScopeOwner();
+	}
+
+	/**
+	 * Returns the scope of the @ThreadScoped components <br>
+	 * ( e.g. to clear the instances of a pooled thread before returning it to the pool )
+	 * @return the thread scope, or null if @ThreadScoped is bound to another kind of scope
+	 */
+	public ThreadScope getThreadScope() {
+		ComponentScope scope = this.scopes.get(ThreadScoped.class);
+		return ( scope instanceof ThreadScope ? (ThreadScope) scope : null ) ;
+	}
+
+	/**
+	 * Releases the resources held by the injector : the asynchronous interceptors thread, <br>
+	 * and the scoped instances kept in the storages of all the threads ( a scoped instance requested later is a new one ) <br>
+	 * The asynchronous events already published are still delivered
+	 */
+	public void shutdown() {
+		this.asyncEventDispatcher.shutdown();
+		this.componentsRegistry.releaseScopedInstances();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.telosys.injector.Injector#getInstance(java.lang.Class)
 	 */
@@ -125,6 +304,114 @@ public class InjectorImpl implements Injector {
 		return componentInstance;
 	}
 
+	/**
+	 * Builds the container eagerly from the given root components <br>
+	 * Walks the dependency graph of the root components, validates it (missing implementations, 
+	 * constructors that cannot be determined, cycles) and optionally creates all the singletons. <br>
+	 * All the wiring errors are reported at once in a single exception. <br>
+	 * 
+	 * @param rootComponents the components requested by the application 
+	 * @param preInstantiateSingletons if true all the singletons of the graph are created (dependencies first)
+	 * @throws InjectorException if the graph is invalid
+	 */
+	public void build(Class<?>[] rootComponents, boolean preInstantiateSingletons) {
+		build(rootComponents, preInstantiateSingletons, 1);
+	}
+
+	/**
+	 * Builds the container eagerly from the given root components <br>
+	 * Same as build(rootComponents, preInstantiateSingletons) with a parallel warm-up of the singletons <br>
+	 * 
+	 * @param rootComponents the components requested by the application 
+	 * @param preInstantiateSingletons if true all the singletons of the graph are created (dependencies first)
+	 * @param warmUpParallelism number of threads used to create the singletons ( 1 for a sequential creation )
+	 * @throws InjectorException if the graph is invalid
+	 */
+	public void build(Class<?>[] rootComponents, boolean preInstantiateSingletons, int warmUpParallelism) {
+		if ( null == rootComponents ) {
+			throw new IllegalArgumentException("rootComponents is null");
+		}
+		if ( warmUpParallelism < 1 ) {
+			throw new IllegalArgumentException("Invalid warm-up parallelism " + warmUpParallelism );
+		}
+		
+		//--- Walk and validate the whole graph
+		ComponentGraph graph = new ComponentGraph(this, rootComponents);
+		if ( graph.hasErrors() ) {
+			throw new InjectorException( graph.getErrorsReport() );
+		}
+		List<ComponentDefinition<?>> definitions = graph.getDefinitions();
+		if ( lifecycleLogEnabled ) {
+			logger.info("Components graph validated : " + definitions.size() + " component(s)");
+		}
+		
+		//--- Create all the singletons (each one after its dependencies)
+		if ( preInstantiateSingletons ) {
+			if ( warmUpParallelism > 1 ) {
+				warmUpInParallel(graph.getLevels(), warmUpParallelism);
+			}
+			else {
+				for ( ComponentDefinition<?> definition : definitions ) {
+					if ( definition.isMonoInstance() ) {
+						definition.getInstance();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the singletons in parallel, level after level <br>
+	 * The singletons of a same dependency level are independent of each other, they are created in parallel <br>
+	 * Each singleton is created only once (even if also requested by a dependent component) 
+	 * 
+	 * @param levels the components grouped by dependency level
+	 * @param parallelism
+	 */
+	private void warmUpInParallel(List<List<ComponentDefinition<?>>> levels, int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			for ( List<ComponentDefinition<?>> level : levels ) {
+				//--- One task for each singleton of this level 
+				LinkedList<Callable<Object>> tasks = new LinkedList<Callable<Object>>();
+				for ( final ComponentDefinition<?> definition : level ) {
+					if ( definition.isMonoInstance() ) {
+						tasks.add( new Callable<Object>() {
+							public Object call() {
+								return definition.getInstance();
+							}
+						});
+					}
+				}
+				//--- Wait for all the singletons of this level before the next level 
+				for ( Future<Object> future : pool.invokeAll(tasks) ) {
+					waitForWarmUp(future);
+				}
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private void waitForWarmUp(Future<Object> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InjectorException("Interrupted during singletons warm-up", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause ;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause ;
+			}
+			throw new InjectorException("Error during singletons warm-up", cause);
+		}
+	}
+
 	/**
 	 * Returns a component instance for the given class <br>
 	 * If the given class is an interface the implementation is returned.<br>
@@ -138,62 +425,82 @@ public class InjectorImpl implements Injector {
 	 */
 	@SuppressWarnings("unchecked")
 	protected <T> T getComponentInstance(Class<T> componentClass) {
-		logger.info("getInstance(" + componentClass + ")");
+		if ( traceLogEnabled ) {
+			logger.info("getInstance(" + componentClass + ")");
+		}
+
+		//--- Get the component definition (existing or new one)
+		ComponentDefinition<?> componentDefinition = getComponentDefinition(componentClass);
+
+		//--- Use the component definition to get the instance
+		T instance = (T) componentDefinition.getInstance();
+		return instance;
+	}
 
-		String sClassName = componentClass.getName();
-		//--- Search an existing resolved component in the container
-		ComponentDefinition<?> componentDefinition = componentsMap.get(sClassName);
+	/**
+	 * Returns the component definition for the given class <br>
+	 * The definition is searched in the registry, and created (only once) if not yet registered <br>
+	 * 
+	 * @param componentClass
+	 * @return the component definition (never null)
+	 */
+	ComponentDefinition<?> getComponentDefinition(final Class<?> componentClass) {
+
+		//--- Search an existing resolved component in the container (lock-free, identity lookup)
+		ComponentDefinition<?> componentDefinition = componentsRegistry.get(componentClass);
 		if (componentDefinition != null) {
-			
-			//----- Component definition found : use it to get the component instance
-			//@SuppressWarnings("unchecked")
-			T instance = (T) componentDefinition.getInstance();
-			return instance;
-			
-		} else {
-			//----- Component definition not found => try to determine the component definition and store it the registry
-
-			//--- 1) Is there a specific implementation class for this component ?
-			Class<?> implementationClass = getImplementationClass(componentClass);
-			if (implementationClass != null) {
-				componentDefinition = new ComponentDefinition(this, componentClass, implementationClass);
-			} 
-			
-			//--- 2) Is there a specific provider for this component ?
-			Provider<T> provider = (Provider<T>) getProvider(componentClass);
-			if (provider != null) {
-				componentDefinition = new ComponentDefinition(this, componentClass, provider);
-			} 
-			
-			//--- 3) Try to resolve the component definition from the conventions ?
-			implementationClass = getImplementationClassByConvention(componentClass);
-			if (implementationClass != null) {
-				componentDefinition = new ComponentDefinition(this, componentClass, implementationClass);
-			} 
-			
-			//--- Still no component ?
-			if ( null == componentDefinition ) {
-				if ( ClassTools.isInterfaceOrAbstract(componentClass) ) {
-					throw new InjectorException("Cannot get implementation or provider for '"
-							+ componentClass.getName() + "'");
-				}
-				else {
-					//--- Concrete class (implementation not required)
-//					component = new Component(this, componentClass, null);
-					componentDefinition = new ComponentDefinition(this, componentClass);
-				}
+			return componentDefinition;
+		}
+
+		//--- Component definition not found => determine the component definition and store it in the registry
+		return componentsRegistry.getOrCreate(componentClass, new Callable<ComponentDefinition<?>>() {
+			public ComponentDefinition<?> call() {
+				return createComponentDefinition(componentClass);
 			}
-			
-			//--- Store the component in the registry (for next time)
-			componentsMap.put(sClassName, componentDefinition);
+		});
+	}
 
-			//--- Use the component definition to get the instance
-			//return (T) component.getInstance();
-			//@SuppressWarnings("unchecked")
-			T instance = (T) componentDefinition.getInstance();
-			return instance;
-		}
+	/**
+	 * Creates a new component definition for the given class
+	 * 
+	 * @param componentClass
+	 * @return the component definition (never null)
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private <T> ComponentDefinition<?> createComponentDefinition(Class<T> componentClass) {
+		
+		ComponentDefinition<?> componentDefinition = null ;
 
+		//--- 1) Is there a specific implementation class for this component ?
+		Class<?> implementationClass = getImplementationClass(componentClass);
+		if (implementationClass != null) {
+			componentDefinition = new ComponentDefinition(this, componentClass, implementationClass);
+		} 
+		
+		//--- 2) Is there a specific provider for this component ?
+		Provider<T> provider = (Provider<T>) getProvider(componentClass);
+		if (provider != null) {
+			componentDefinition = new ComponentDefinition(this, componentClass, provider);
+		} 
+		
+		//--- 3) Try to resolve the component definition from the conventions ?
+		implementationClass = getImplementationClassByConvention(componentClass);
+		if (implementationClass != null) {
+			componentDefinition = new ComponentDefinition(this, componentClass, implementationClass);
+		} 
+		
+		//--- Still no component ?
+		if ( null == componentDefinition ) {
+			if ( ClassTools.isInterfaceOrAbstract(componentClass) ) {
+				throw new InjectorException("Cannot get implementation or provider for '"
+						+ componentClass.getName() + "'");
+			}
+			else {
+				//--- Concrete class (implementation not required)
+				componentDefinition = new ComponentDefinition(this, componentClass);
+			}
+		}
+		return componentDefinition;
 	}
 
 	/**
@@ -221,11 +528,67 @@ public class InjectorImpl implements Injector {
 		boolean b = isMonoInstanceByAnnotation(cl); // Default behavior : has a
 													// @Singleton annotation (
 													// from any package )
-		logger.info("isMonoInstance ( " + cl.getCanonicalName()
-				+ " ) : " + b);
+		if ( lifecycleLogEnabled ) {
+			logger.info("isMonoInstance ( " + cl.getCanonicalName()
+					+ " ) : " + b);
+		}
 		return b;
 	}
 
+	/**
+	 * Returns the scope of the given component class, or null if none ( new instance for each request ) <br>
+	 * The scope is given by an annotation annotated with @Scope ( except @Singleton, see isMonoInstance )
+	 * 
+	 * @param cl
+	 * @return
+	 */
+	ComponentScope getComponentScope(Class<?> cl) {
+		for ( Annotation a : cl.getDeclaredAnnotations() ) {
+			if ( AnnotationUtil.isScope(a) && ! AnnotationUtil.isSingleton(a) ) {
+				return getComponentScope(a.annotationType(), cl);
+			}
+		}
+		return null ;
+	}
+
+	/**
+	 * Returns the scope associated with the given scope annotation
+	 * 
+	 * @param scopeAnnotation the scope annotation of the component class ( or null if none )
+	 * @param cl the component class
+	 * @return the scope, or null if no scope annotation
+	 */
+	ComponentScope getComponentScope(Class<? extends Annotation> scopeAnnotation, Class<?> cl) {
+		if ( scopeAnnotation == null ) {
+			return null ;
+		}
+		ComponentScope scope = scopes.get(scopeAnnotation);
+		if ( scope == null ) {
+			throw new InjectorException("Undefined scope '@" + scopeAnnotation.getSimpleName() 
+					+ "' for class " + cl.getName() + " ( see InjectorConfiguration.defineScope )");
+		}
+		if ( lifecycleLogEnabled ) {
+			logger.info("getComponentScope ( " + cl.getCanonicalName() + " ) : @" + scopeAnnotation.getSimpleName());
+		}
+		return scope ;
+	}
+
+	/**
+	 * Returns the factory generated at compile time for the given implementation class, or null if none <br>
+	 * ( see 'nanoj-injector-processor', if null the component is introspected with reflection )
+	 * 
+	 * @param implementationClass
+	 * @return
+	 */
+	<T> ComponentFactory<T> getGeneratedFactory(Class<T> implementationClass) {
+		ComponentFactory<T> factory = ComponentFactoryIndex.getInstance().getFactory(implementationClass);
+		if ( lifecycleLogEnabled ) {
+			logger.info("getGeneratedFactory ( " + implementationClass.getCanonicalName() + " ) : " 
+					+ ( factory != null ? factory.getClass().getName() : "none" ) );
+		}
+		return factory ;
+	}
+
 	/**
 	 * Returns the implementation class for the given interface class
 	 * 
@@ -239,24 +602,64 @@ public class InjectorImpl implements Injector {
 	}
 
 	/**
-	 * Try to found an implementation class using the conventions
+	 * Returns the implementation class found with the conventions for the given interface <br>
+	 * The conventions are applied only once for each interface, the result is reused ( even if no class found )
 	 * @param interfaceClass
-	 * @return
+	 * @return the implementation class, or null if none
 	 */
 	private Class<?> getImplementationClassByConvention(Class<?> interfaceClass) {
+		if ( implementationConventions.length == 0 ) {
+			return null ;
+		}
+		ConventionLookup lookup = conventionLookups.get(interfaceClass);
+		if ( lookup.isNotFound() ) {
+			return null ;
+		}
+		Class<?> implementationClass = lookup.getImplementationClass();
+		if ( implementationClass == null ) {
+			//--- Implementation class unloaded since the lookup : apply the conventions again
+			conventionLookups.remove(interfaceClass);
+			implementationClass = conventionLookups.get(interfaceClass).getImplementationClass();
+		}
+		return implementationClass ;
+	}
+
+	/**
+	 * Try to found an implementation class using the conventions <br>
+	 * If the interface is in the component index ( generated at compile time ) only its indexed 
+	 * implementations are loaded, else each class name given by the conventions is probed <br>
+	 * With a partial index ( see InjectorConfiguration.definePartialComponentIndex ) the other class names 
+	 * are also probed if no indexed implementation matches the conventions
+	 * @param interfaceClass
+	 * @return
+	 */
+	private Class<?> findImplementationClassByConvention(Class<?> interfaceClass) {
+		
+		Set<String> indexedImplementations = componentIndex.getImplementations(interfaceClass);
+		if ( indexedImplementations != null ) {
+			//--- 1) The implementations known at compile time 
+			for ( ConventionPattern pattern : implementationConventions ) {
+				String className = pattern.apply(interfaceClass);
+				if ( indexedImplementations.contains(className) ) {
+					Class<?> implementationClass = loadImplementationClass(className);
+					if ( implementationClass != null ) {
+						return implementationClass ;
+					}
+				}
+			}
+			if ( ! partialComponentIndex ) {
+				//--- Complete index : no other implementation
+				return null ;
+			}
+		}
 		
-		for ( String pattern : implementationConventions ) {
-			String className = ClassTools.applyClassOnPattern(interfaceClass, pattern );
-			ClassLoader classLoader = InjectorImpl.class.getClassLoader() ;
-			
-			//--- Try to load this class ...
-			Class<?> implementationClass = null ;
-			try {
-				implementationClass = classLoader.loadClass(className);
-			} catch (ClassNotFoundException e) {
-				// No class with this name 
-				implementationClass = null ;
+		//--- 2) Try to load each class ( except the indexed classes already tried )
+		for ( ConventionPattern pattern : implementationConventions ) {
+			String className = pattern.apply(interfaceClass);
+			if ( indexedImplementations != null && indexedImplementations.contains(className) ) {
+				continue ;
 			}
+			Class<?> implementationClass = loadImplementationClass(className);
 			if ( implementationClass != null ) {
 				return implementationClass ;
 			}
@@ -264,7 +667,22 @@ public class InjectorImpl implements Injector {
 		
 		return null ;
 	}
-	
+
+	/**
+	 * Loads the given class with the injector class loader
+	 * @param className
+	 * @return the class, or null if no class with this name 
+	 */
+	Class<?> loadImplementationClass(String className) {
+		ClassLoader classLoader = InjectorImpl.class.getClassLoader() ;
+		try {
+			return classLoader.loadClass(className);
+		} catch (ClassNotFoundException e) {
+			// No class with this name 
+			return null ;
+		}
+	}
+
 	private <T> Provider<T> getProvider(Class<T> interfaceClass) {
 		Provider<?> provider = this.implementationProviders.get(interfaceClass);
 		//return (Provider<T>) provider ;
@@ -349,7 +767,7 @@ public class InjectorImpl implements Injector {
 	public void printAllComponents(PrintStream out) {
 		// Set<String> keys = _hmComponents.keySet() ;
 
-		Collection<ComponentDefinition<?>> collection = componentsMap.values();
+		Collection<ComponentDefinition<?>> collection = componentsRegistry.getAll();
 		// Iterator iter = collection.iterator();
 		// while ( iter.hasNext() )
 		for (ComponentDefinition<?> component : collection) {
@@ -416,7 +834,9 @@ public class InjectorImpl implements Injector {
 		{
 			// --- Is it a "boolean" field ?
 			Class<?> type = field.getType();
-			logger.info("SINGLETON found : type = " + type);
+			if ( lifecycleLogEnabled ) {
+				logger.info("SINGLETON found : type = " + type);
+			}
 			if ("boolean".equals(type.getName())) {
 				// --- Has it a "TRUE" value ?
 				boolean fieldValue = false;
@@ -0,0 +1,37 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.scope;
+
+/**
+ * A scope for the components : gives the storage of the instances for the current context <br>
+ * <br>
+ * A scope is associated with a scope annotation ( see InjectorConfiguration.defineScope ), <br>
+ * each component class with this annotation has a single instance in each storage <br>
+ * NB : a storage is not thread safe, a custom scope must give a storage used by a single thread at a time
+ *
+ * @author Laurent Guerin
+ *
+ */
+public interface ComponentScope {
+
+	/**
+	 * Returns the storage of the current scope context ( e.g. the current thread or unit of work )
+	 * @return the storage (never null)
+	 * @throws org.nanoj.injector.InjectorException if there's no current context for this scope
+	 */
+	ScopeStorage getStorage() ;
+
+}
@@ -0,0 +1,110 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.scope;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+/**
+ * Storage of the scoped instances for a scope context <br>
+ * <br>
+ * The instances are kept in an array indexed by the component id ( a small integer given by the injector to each scoped component ) <br>
+ * The ids are given by each injector : a storage shared by several injectors keeps one array per injector <br>
+ * The arrays are keyed by the scope owner of each injector ( see InjectorImpl.getScopeOwner ), held by weak references : <br>
+ * a storage kept by a long-lived thread does not retain the injector, and the instances of a released owner can be collected <br>
+ * NB : not thread safe
+ *
+ * @author Laurent Guerin
+ *
+ */
+public final class ScopeStorage {
+
+	private final static int INITIAL_SIZE = 16 ;
+
+	private final static WeakReference<Object> NO_OWNER = new WeakReference<Object>(null);
+
+	/**
+	 * The scope owner of the main array ( the first owner using this storage )
+	 */
+	private WeakReference<Object> owner = NO_OWNER ;
+
+	private Object[] instances = new Object[INITIAL_SIZE] ;
+
+	/**
+	 * The arrays of the other owners using this storage ( null if none, usual case )
+	 */
+	private WeakHashMap<Object, Object[]> otherInstances = null ;
+
+	/**
+	 * Returns the instance of the given component, or null if not yet created in this storage
+	 * @param scopeOwner the scope owner of the injector owning the component 
+	 * @param componentId the id of the component in this injector
+	 * @return
+	 */
+	public Object get(Object scopeOwner, int componentId) {
+		Object[] array = ( scopeOwner == owner.get() ? instances : getOtherInstances(scopeOwner) ) ;
+		return ( array != null && componentId < array.length ? array[componentId] : null ) ;
+	}
+
+	/**
+	 * Keeps the instance of the given component
+	 * @param scopeOwner the scope owner of the injector owning the component 
+	 * @param componentId the id of the component in this injector
+	 * @param instance
+	 */
+	public void put(Object scopeOwner, int componentId, Object instance) {
+		Object currentOwner = owner.get() ;
+		if ( currentOwner == null ) {
+			//--- No owner or released owner : the main array is reused
+			Arrays.fill(instances, null);
+			owner = new WeakReference<Object>(scopeOwner);
+			currentOwner = scopeOwner ;
+		}
+		if ( scopeOwner == currentOwner ) {
+			instances = put(instances, componentId, instance);
+		}
+		else {
+			if ( otherInstances == null ) {
+				otherInstances = new WeakHashMap<Object, Object[]>();
+			}
+			Object[] array = otherInstances.get(scopeOwner);
+			otherInstances.put(scopeOwner, put(array != null ? array : new Object[INITIAL_SIZE], componentId, instance));
+		}
+	}
+
+	/**
+	 * Removes all the instances
+	 */
+	public void clear() {
+		Arrays.fill(instances, null);
+		owner = NO_OWNER ;
+		otherInstances = null ;
+	}
+
+	private Object[] getOtherInstances(Object scopeOwner) {
+		return ( otherInstances != null ? otherInstances.get(scopeOwner) : null ) ;
+	}
+
+	private static Object[] put(Object[] array, int componentId, Object instance) {
+		Object[] result = array ;
+		if ( componentId >= result.length ) {
+			result = Arrays.copyOf(result, Math.max(componentId + 1, result.length * 2));
+		}
+		result[componentId] = instance ;
+		return result ;
+	}
+}
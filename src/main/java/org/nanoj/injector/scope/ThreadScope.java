@@ -0,0 +1,44 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.scope;
+
+/**
+ * Thread scope : a single instance of each component for each thread <br>
+ * ( used for the components annotated with @ThreadScoped )
+ *
+ * @author Laurent Guerin
+ *
+ */
+public class ThreadScope implements ComponentScope {
+
+	private final ThreadLocal<ScopeStorage> storage = new ThreadLocal<ScopeStorage>() {
+		@Override
+		protected ScopeStorage initialValue() {
+			return new ScopeStorage();
+		}
+	};
+
+	public ScopeStorage getStorage() {
+		return storage.get();
+	}
+
+	/**
+	 * Removes the instances of the current thread ( e.g. before returning a thread to a pool, see InjectorImpl.getThreadScope )
+	 */
+	public void clear() {
+		storage.remove();
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.scope;
+
+import org.nanoj.injector.InjectorException;
+
+/**
+ * Unit of work scope ( e.g. a request ) : a single instance of each component between 'enter' and 'exit' <br>
+ * ( used for the components annotated with @UnitOfWorkScoped ) <br>
+ * <br>
+ * A unit of work is bound to the current thread, the units of work can be nested <br>
+ * Usage : <br>
+ *   scope.enter(); <br>
+ *   try { ... } finally { scope.exit(); } <br>
+ *
+ * @author Laurent Guerin
+ *
+ */
+public class UnitOfWorkScope implements ComponentScope {
+
+	private final ThreadLocal<UnitOfWork> current = new ThreadLocal<UnitOfWork>();
+
+	/**
+	 * Starts a new unit of work for the current thread
+	 */
+	public void enter() {
+		current.set(new UnitOfWork(current.get()));
+	}
+
+	/**
+	 * Ends the current unit of work ( its instances are released, the enclosing unit of work becomes the current one )
+	 */
+	public void exit() {
+		UnitOfWork unitOfWork = current.get();
+		if ( unitOfWork == null ) {
+			throw new IllegalStateException("No current unit of work");
+		}
+		if ( unitOfWork.enclosing != null ) {
+			current.set(unitOfWork.enclosing);
+		}
+		else {
+			current.remove();
+		}
+	}
+
+	/**
+	 * Returns true if there's a current unit of work for the current thread
+	 * @return
+	 */
+	public boolean isActive() {
+		return current.get() != null ;
+	}
+
+	public ScopeStorage getStorage() {
+		UnitOfWork unitOfWork = current.get();
+		if ( unitOfWork == null ) {
+			throw new InjectorException("No current unit of work ( see UnitOfWorkScope.enter )");
+		}
+		return unitOfWork.storage ;
+	}
+
+	private final static class UnitOfWork {
+		final UnitOfWork   enclosing ;
+		final ScopeStorage storage = new ScopeStorage();
+		UnitOfWork(UnitOfWork enclosing) {
+			this.enclosing = enclosing ;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.spi;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Reflection-free factory of a component implementation class <br>
+ * <br>
+ * Usually generated at compile time by the annotation processor ( 'nanoj-injector-processor' ) <br>
+ * and registered in the 'META-INF/nanoj/factories' index ( lines 'implementation.class.Name=factory.class.Name' ) <br>
+ * The injector uses it instead of the constructor and fields introspection when it exists <br>
+ * <br>
+ * The dependencies are given as classes, the injector resolves them and gives the instances 
+ * in the same order ( to 'newInstance' and 'injectFields' ) <br>
+ * A factory must have a public default constructor and must be stateless ( shared by all the injectors )
+ *
+ * @author Laurent Guerin
+ *
+ * @param <T> the implementation class
+ */
+public interface ComponentFactory<T> {
+
+	/**
+	 * Returns the implementation class of the instances created by this factory
+	 * @return
+	 */
+	Class<T> getComponentClass() ;
+
+	/**
+	 * Returns the types of the constructor parameters ( void array for the default constructor ) <br>
+	 * NB : the returned array must not be modified
+	 * @return
+	 */
+	Class<?>[] getConstructorDependencies() ;
+
+	/**
+	 * Returns the types of the fields to be injected ( void array if none ) <br>
+	 * NB : the returned array must not be modified
+	 * @return
+	 */
+	Class<?>[] getFieldDependencies() ;
+
+	/**
+	 * Returns true if the component class has a "@Singleton" annotation <br>
+	 * ( informative : the injector still decides with its 'isMonoInstance' method )
+	 * @return
+	 */
+	boolean isSingleton() ;
+
+	/**
+	 * Returns the scope annotation of the component class ( other than "@Singleton" ), or null if none
+	 * @return
+	 */
+	Class<? extends Annotation> getScopeAnnotation() ;
+
+	/**
+	 * Creates a new instance with the given constructor parameters
+	 * @param args the instances of the constructor dependencies ( same order as 'getConstructorDependencies' )
+	 * @return
+	 */
+	T newInstance(Object[] args) ;
+
+	/**
+	 * Injects the given values in the fields of the given instance
+	 * @param instance the component instance ( created by 'newInstance' )
+	 * @param values the instances of the field dependencies ( same order as 'getFieldDependencies' )
+	 */
+	void injectFields(T instance, Object[] values) ;
+
+}
@@ -67,7 +67,8 @@ public class ClassTools {
 
 	/**
 	 * Apply the given class on the given pattern <br>
-	 * ${package-N} means 'package without N last levels'
+	 * ${package-N} means 'package without N last levels' <br>
+	 * NB : the pattern is parsed at each call, see ConventionPattern for a pattern parsed once
 	 * @param clazz
 	 * @param pattern  (ie : "${package}.${class}Impl", "${package-1}.impl.${class}Impl" 
 	 * @return the resulting class name 
@@ -0,0 +1,185 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.tools;
+
+/**
+ * Implementation convention pattern parsed once ( e.g. "${package}.impl.${class}Impl" ) <br>
+ * <br>
+ * Same result as 'ClassTools.applyClassOnPattern' : <br>
+ * . the first "${package}" is replaced by the package of the class, or ( if no "${package}" ) 
+ * the first "${package-N}" is replaced by the package without its N last levels <br>
+ * . the first "${class}" is replaced by the simple name of the class <br>
+ * . a leading '.' is removed ( e.g. void package ) <br>
+ * <br>
+ * The pattern is split into literal parts and variables at construction, 
+ * each class name is then built in a single pass ( one StringBuilder with the right capacity )
+ *
+ * @author Laurent Guerin
+ *
+ */
+public final class ConventionPattern {
+
+	private final static String PACKAGE_VAR      = "${package}" ;
+	private final static String PACKAGE_N_PREFIX = "${package-" ;
+	private final static String CLASS_VAR        = "${class}" ;
+
+	private final static int PACKAGE = 1 ;
+	private final static int CLASS   = 2 ;
+
+	private final String   pattern ;
+
+	/**
+	 * The literal parts, before, between and after the variables ( variables count + 1 )
+	 */
+	private final String[] literals ;
+
+	/**
+	 * The variables ( PACKAGE or CLASS ) in the pattern order
+	 */
+	private final int[]    variables ;
+
+	/**
+	 * The number of last package levels to be removed ( "${package-N}" )
+	 */
+	private final int      packageLevel ;
+
+	/**
+	 * The total length of the literal parts
+	 */
+	private final int      literalsLength ;
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Constructor : parses the given pattern
+	 * @param pattern (ie : "${package}.${class}Impl", "${package-1}.impl.${class}Impl" 
+	 */
+	public ConventionPattern(String pattern) {
+		super();
+		if ( pattern == null ) {
+			throw new IllegalArgumentException("Pattern is null");
+		}
+		this.pattern = pattern ;
+
+		//--- The package variable ( same search as ClassTools )
+		int packageStart = pattern.indexOf(PACKAGE_VAR) ;
+		int packageEnd   = packageStart + PACKAGE_VAR.length() ;
+		int level = 0 ;
+		if ( packageStart < 0 && pattern.contains(PACKAGE_N_PREFIX) ) {
+			level = ClassTools.getPackageLevel(pattern);
+			String v = ClassTools.getPackageVar(pattern);
+			packageStart = pattern.indexOf(v);
+			packageEnd   = packageStart + v.length() ;
+		}
+		this.packageLevel = level ;
+
+		//--- The class variable : the first one not replaced by the package
+		int classStart = -1 ;
+		if ( packageStart < 0 ) {
+			classStart = pattern.indexOf(CLASS_VAR);
+		}
+		else {
+			classStart = pattern.substring(0, packageStart).indexOf(CLASS_VAR);
+			if ( classStart < 0 ) {
+				classStart = pattern.indexOf(CLASS_VAR, packageEnd);
+			}
+		}
+		int classEnd = classStart + CLASS_VAR.length() ;
+
+		//--- Literals and variables in the pattern order
+		if ( packageStart < 0 && classStart < 0 ) {
+			this.literals  = new String[] { pattern } ;
+			this.variables = new int[0] ;
+		}
+		else if ( packageStart < 0 ) {
+			this.literals  = new String[] { pattern.substring(0, classStart), pattern.substring(classEnd) } ;
+			this.variables = new int[] { CLASS } ;
+		}
+		else if ( classStart < 0 ) {
+			this.literals  = new String[] { pattern.substring(0, packageStart), pattern.substring(packageEnd) } ;
+			this.variables = new int[] { PACKAGE } ;
+		}
+		else if ( packageStart < classStart ) {
+			this.literals  = new String[] { pattern.substring(0, packageStart), pattern.substring(packageEnd, classStart), 
+					pattern.substring(classEnd) } ;
+			this.variables = new int[] { PACKAGE, CLASS } ;
+		}
+		else {
+			this.literals  = new String[] { pattern.substring(0, classStart), pattern.substring(classEnd, packageStart), 
+					pattern.substring(packageEnd) } ;
+			this.variables = new int[] { CLASS, PACKAGE } ;
+		}
+		int length = 0 ;
+		for ( String literal : literals ) {
+			length += literal.length() ;
+		}
+		this.literalsLength = length ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the original pattern
+	 * @return
+	 */
+	public String getPattern() {
+		return pattern ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Apply the given class on this pattern
+	 * @param clazz
+	 * @return the resulting class name 
+	 */
+	public String apply(Class<?> clazz) {
+		String packageName = getPackageName(clazz.getName(), packageLevel) ;
+		String className = clazz.getSimpleName() ;
+
+		StringBuilder sb = new StringBuilder(literalsLength + packageName.length() + className.length());
+		sb.append(literals[0]);
+		for ( int i = 0 ; i < variables.length ; i++ ) {
+			sb.append( variables[i] == PACKAGE ? packageName : className );
+			sb.append(literals[i + 1]);
+		}
+
+		//--- Last check 
+		if ( sb.length() > 0 && sb.charAt(0) == '.' ) {
+			return sb.substring(1);
+		}
+		return sb.toString();
+	}
+
+	//-----------------------------------------------------------------------------------------
+	/**
+	 * Returns the package of the given class name without its N last levels <br>
+	 * ( void if there are no more levels, as with N calls of 'ClassTools.cutLastLevel' )
+	 * @param fullClassName
+	 * @param levelsToRemove
+	 * @return
+	 */
+	private static String getPackageName(String fullClassName, int levelsToRemove) {
+		int i = fullClassName.lastIndexOf('.');
+		for ( int n = 0 ; n < levelsToRemove && i >= 0 ; n++ ) {
+			i = fullClassName.lastIndexOf('.', i - 1);
+		}
+		return i > 0 ? fullClassName.substring(0, i) : "" ;
+	}
+
+	//-----------------------------------------------------------------------------------------
+	@Override
+	public String toString() {
+		return pattern ;
+	}
+}
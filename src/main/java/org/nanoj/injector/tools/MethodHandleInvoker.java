@@ -0,0 +1,112 @@
+/**
+ *  Copyright (C) 2013-2016 Laurent GUERIN - NanoJ project org. ( http://www.nanoj.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nanoj.injector.tools;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nanoj.injector.InjectorException;
+
+/**
+ * Method invoker using a MethodHandle built once for each method <br>
+ * <br>
+ * Each method is converted into a handle with the generic signature "(Object, Object[])Object" <br>
+ * and kept for the next calls ( for each declaring class, without preventing the class unloading ) <br>
+ * The exceptions thrown by the called method are rethrown as is ( no InvocationTargetException ) <br>
+ * 
+ * @author Laurent Guerin
+ *
+ */
+public class MethodHandleInvoker {
+
+	private final static MethodType GENERIC_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	/**
+	 * The handles already built, for each declaring class
+	 */
+	private final static ClassValue<ConcurrentHashMap<Method, MethodHandle>> handles = 
+			new ClassValue<ConcurrentHashMap<Method, MethodHandle>>() {
+		@Override
+		protected ConcurrentHashMap<Method, MethodHandle> computeValue(Class<?> declaringClass) {
+			return new ConcurrentHashMap<Method, MethodHandle>();
+		}
+	};
+
+	/**
+	 * Invokes the given method on the given instance <br>
+	 * The exception thrown can be either the exception thrown by the called method, <br>
+	 * or an InjectorException if the method cannot be converted into a MethodHandle
+	 * @param componentInstance
+	 * @param method
+	 * @param args the arguments ( null or void array if none )
+	 * @return the result (boxed if primitive, null if void)
+	 * @throws Throwable
+	 */
+	public final static Object invoke(Object componentInstance, Method method, Object[] args) throws Throwable
+	{
+		return (Object) getMethodHandle(method).invokeExact(componentInstance, args);
+	}
+
+	/**
+	 * Returns the generic handle for the given method ( built at the first call )
+	 * @param method
+	 * @return
+	 */
+	public final static MethodHandle getMethodHandle(Method method)
+	{
+		ConcurrentHashMap<Method, MethodHandle> classHandles = handles.get(method.getDeclaringClass());
+		MethodHandle handle = classHandles.get(method);
+		if ( handle == null ) {
+			handle = createMethodHandle(method);
+			MethodHandle existing = classHandles.putIfAbsent(method, handle);
+			if ( existing != null ) {
+				handle = existing ;
+			}
+		}
+		return handle ;
+	}
+
+	private static MethodHandle createMethodHandle(Method method)
+	{
+		MethodHandle handle ;
+		try {
+			handle = MethodHandles.publicLookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			//--- Not public ( e.g. package interface ) : use an accessible copy of the method
+			try {
+				Method accessibleMethod = method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+				accessibleMethod.setAccessible(true);
+				handle = MethodHandles.lookup().unreflect(accessibleMethod);
+			} catch (NoSuchMethodException e2) {
+				throw new InjectorException("Cannot get handle for method '" + method.getName() + "'", e2) ;
+			} catch (IllegalAccessException e2) {
+				throw new InjectorException("Cannot get handle for method '" + method.getName() + "'", e2) ;
+			} catch (SecurityException e2) {
+				throw new InjectorException("Cannot get handle for method '" + method.getName() + "'", e2) ;
+			}
+		}
+		int parametersCount = method.getParameterTypes().length ;
+		if ( Modifier.isStatic(method.getModifiers()) ) {
+			//--- No instance for a static method
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		return handle.asSpreader(Object[].class, parametersCount).asType(GENERIC_TYPE);
+	}
+}
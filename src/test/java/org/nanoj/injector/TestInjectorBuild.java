@@ -0,0 +1,155 @@
+package org.nanoj.injector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import junit.framework.TestCase;
+
+public class TestInjectorBuild extends TestCase {
+
+	@Singleton
+	public static class Pool {
+		private final static AtomicInteger constructions = new AtomicInteger();
+		public Pool() {
+			constructions.incrementAndGet();
+		}
+	}
+
+	public static class Dao {
+		@Inject
+		private Pool pool ;
+		public Pool getPool() {
+			return pool;
+		}
+	}
+
+	public static class Service {
+		private final Dao dao ;
+		public Service(Dao dao) {
+			this.dao = dao ;
+		}
+		public Dao getDao() {
+			return dao;
+		}
+	}
+
+	@Singleton
+	public static class Cache {
+		private final static AtomicInteger constructions = new AtomicInteger();
+		private final Pool pool ;
+		public Cache(Pool pool) {
+			constructions.incrementAndGet();
+			this.pool = pool ;
+		}
+		public Pool getPool() {
+			return pool;
+		}
+	}
+
+	public interface Missing {
+	}
+
+	public static class NeedsMissing {
+		public NeedsMissing(Missing missing) {
+		}
+	}
+
+	public interface OtherMissing {
+	}
+
+	public static class NeedsTwoMissing {
+		@Inject
+		private OtherMissing otherMissing ;
+		public NeedsTwoMissing(Missing missing) {
+		}
+	}
+
+	public static class CycleA {
+		public CycleA(CycleB b) {
+		}
+	}
+
+	public static class CycleB {
+		@Inject
+		private CycleA a ;
+	}
+
+	public static class Ambiguous {
+		@Inject
+		public Ambiguous(Pool pool) {
+		}
+		@Inject
+		public Ambiguous(Dao dao) {
+		}
+	}
+
+	private InjectorConfiguration getConfiguration() {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		return configuration ;
+	}
+
+	public void testPreInstantiation() {
+		Pool.constructions.set(0);
+		Injector injector = InjectorFactory.createInjector("build", getConfiguration(), new Class<?>[] { Service.class }, true);
+
+		//--- The singleton has been created by the build
+		assertEquals(1, Pool.constructions.get());
+
+		Service service = injector.getInstance(Service.class);
+		assertSame(injector.getInstance(Pool.class), service.getDao().getPool());
+		assertEquals(1, Pool.constructions.get());
+	}
+
+	public void testValidationWithoutPreInstantiation() {
+		Pool.constructions.set(0);
+		InjectorFactory.createInjector("build", getConfiguration(), new Class<?>[] { Service.class }, false);
+		assertEquals(0, Pool.constructions.get());
+	}
+
+	public void testParallelWarmUp() {
+		Pool.constructions.set(0);
+		Cache.constructions.set(0);
+		InjectorConfiguration configuration = getConfiguration();
+		configuration.defineWarmUpParallelism(4);
+		Injector injector = InjectorFactory.createInjector("build", configuration, 
+				new Class<?>[] { Service.class, Cache.class, Pool.class }, true);
+
+		//--- Each singleton created once, the dependent singleton after its dependency
+		assertEquals(1, Pool.constructions.get());
+		assertEquals(1, Cache.constructions.get());
+		Pool pool = injector.getInstance(Pool.class);
+		assertSame(pool, injector.getInstance(Cache.class).getPool());
+		assertSame(pool, injector.getInstance(Service.class).getDao().getPool());
+		assertEquals(1, Pool.constructions.get());
+	}
+
+	public void testAllErrorsReported() {
+		try {
+			InjectorFactory.createInjector("build", getConfiguration(),
+					new Class<?>[] { Service.class, NeedsMissing.class, CycleA.class, Ambiguous.class, Missing.class }, true);
+			fail("InjectorException expected");
+		} catch (InjectorException e) {
+			String message = e.getMessage();
+			assertTrue( message.startsWith("4 error(s)") );
+			assertTrue( message.contains("NeedsMissing") );
+			assertTrue( message.contains("Dependency cycle : CycleA -> CycleB -> CycleA") );
+			assertTrue( message.contains("Ambiguous") );
+			assertTrue( message.contains("Root component '" + Missing.class.getName() + "'") );
+		}
+	}
+
+	public void testAllMissingDependenciesOfComponentReported() {
+		try {
+			InjectorFactory.createInjector("build", getConfiguration(), new Class<?>[] { NeedsTwoMissing.class }, true);
+			fail("InjectorException expected");
+		} catch (InjectorException e) {
+			String message = e.getMessage();
+			assertTrue( message.startsWith("2 error(s)") );
+			assertTrue( message.contains("dependency '" + Missing.class.getName() + "'") );
+			assertTrue( message.contains("dependency '" + OtherMissing.class.getName() + "'") );
+		}
+	}
+}
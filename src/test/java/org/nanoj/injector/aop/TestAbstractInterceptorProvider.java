@@ -0,0 +1,58 @@
+package org.nanoj.injector.aop;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+public class TestAbstractInterceptorProvider extends TestCase {
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Audit {
+	}
+
+	public interface Account {
+		void deposit(int amount) ;
+		int getBalance() ;
+	}
+
+	public static class AccountImpl implements Account {
+		@Audit
+		public void deposit(int amount) {
+		}
+		public int getBalance() {
+			return 0 ;
+		}
+	}
+
+	/**
+	 * Provider counting the reflection lookups ( cache misses )
+	 */
+	private static class CountingProvider extends AbstractInterceptorProvider {
+		private int lookups = 0 ;
+		@Override
+		Method getImplementationMethod(Class<?> implementationClass, Method interfaceMethod) {
+			lookups++ ;
+			return super.getImplementationMethod(implementationClass, interfaceMethod);
+		}
+	}
+
+	public void testAnnotationsCache() throws NoSuchMethodException {
+		CountingProvider provider = new CountingProvider();
+		Account account = new AccountImpl();
+		Method deposit = Account.class.getMethod("deposit", int.class);
+		Method getBalance = Account.class.getMethod("getBalance");
+
+		//--- First search : reflection
+		assertTrue(provider.annotationExistsInImplementation(Audit.class, deposit, account));
+		assertFalse(provider.annotationExistsInImplementation(Audit.class, getBalance, account));
+		assertEquals(2, provider.lookups);
+
+		//--- Hit and cached miss : no reflection
+		assertTrue(provider.annotationExistsInImplementation(Audit.class, deposit, account));
+		assertFalse(provider.annotationExistsInImplementation(Audit.class, getBalance, account));
+		assertNotNull(provider.getAnnotationFromImplementation(Audit.class, deposit, account));
+		assertEquals(2, provider.lookups);
+	}
+}
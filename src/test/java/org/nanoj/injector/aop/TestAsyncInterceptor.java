@@ -0,0 +1,145 @@
+package org.nanoj.injector.aop;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.AsyncOverflowPolicy;
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.dynaproxy.AsyncEventDispatcher;
+import org.nanoj.injector.impl.InjectorImpl;
+
+public class TestAsyncInterceptor extends TestCase {
+
+	public interface Audited {
+		int work(int value) ;
+	}
+
+	public static class AuditedImpl implements Audited {
+		public int work(int value) {
+			return value + 1 ;
+		}
+	}
+
+	/**
+	 * Slow audit sink
+	 */
+	public static class AuditInterceptor implements AsyncInterceptor {
+		private final CountDownLatch   latch ;
+		private final AtomicInteger    sum = new AtomicInteger();
+		private volatile Thread        thread = null ;
+		public AuditInterceptor(CountDownLatch latch) {
+			this.latch = latch ;
+		}
+		public void beforeCall(Object instance, Method method, Object[] args) {
+			fail("Not expected");
+		}
+		public void afterCall(Object instance, Method method, Object[] args, Object result) {
+			thread = Thread.currentThread();
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+			}
+			sum.addAndGet((Integer) result);
+			latch.countDown();
+		}
+		public void onError(Object instance, Method method, Object[] args, Exception exception) {
+		}
+	}
+
+	private Injector createInjector(final AuditInterceptor interceptor, AsyncOverflowPolicy policy) {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		configuration.defineImplementationClass(Audited.class, AuditedImpl.class);
+		configuration.defineAsyncInterceptors(16, policy);
+		configuration.defineInterceptorProvider(new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return interceptor;
+			}
+		});
+		return InjectorFactory.createInjector("async", configuration);
+	}
+
+	public void testBlockPolicy() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(100);
+		AuditInterceptor interceptor = new AuditInterceptor(latch);
+		Audited audited = createInjector(interceptor, AsyncOverflowPolicy.BLOCK).getInstance(Audited.class);
+		int expected = 0 ;
+		for ( int i = 0 ; i < 100 ; i++ ) {
+			expected += audited.work(i);
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(expected, interceptor.sum.get()); // no event lost
+		assertNotSame(Thread.currentThread(), interceptor.thread);
+	}
+
+	public void testDropPolicy() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1000);
+		AuditInterceptor interceptor = new AuditInterceptor(latch);
+		Injector injector = createInjector(interceptor, AsyncOverflowPolicy.DROP);
+		Audited audited = injector.getInstance(Audited.class);
+		for ( int i = 0 ; i < 1000 ; i++ ) {
+			audited.work(i);
+		}
+		long dropped = ((InjectorImpl) injector).getAsyncEventDispatcher().getDroppedEvents() ;
+		assertTrue(dropped > 0); // slow sink and small buffer
+		long deadline = System.currentTimeMillis() + 10000 ;
+		while ( latch.getCount() > dropped && System.currentTimeMillis() < deadline ) {
+			Thread.sleep(10);
+		}
+		assertEquals(dropped, latch.getCount());
+	}
+
+	public void testErrorInInterceptor() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(3);
+		AuditInterceptor interceptor = new AuditInterceptor(latch) {
+			@Override
+			public void afterCall(Object instance, Method method, Object[] args, Object result) {
+				super.afterCall(instance, method, args, result);
+				if ( Integer.valueOf(0).equals(args[0]) ) {
+					throw new AssertionError("Error in the 1st event");
+				}
+			}
+		};
+		Injector injector = createInjector(interceptor, AsyncOverflowPolicy.BLOCK);
+		Audited audited = injector.getInstance(Audited.class);
+		audited.work(0);
+		audited.work(1);
+		audited.work(2);
+		assertTrue(latch.await(10, TimeUnit.SECONDS)); // the drainer thread survives the Error
+		assertEquals(1 + 2 + 3, interceptor.sum.get());
+		assertEquals(0, ((InjectorImpl) injector).getAsyncEventDispatcher().getDroppedEvents());
+	}
+
+	public void testShutdown() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(2);
+		AuditInterceptor interceptor = new AuditInterceptor(latch);
+		Injector injector = createInjector(interceptor, AsyncOverflowPolicy.BLOCK);
+		AsyncEventDispatcher dispatcher = ((InjectorImpl) injector).getAsyncEventDispatcher();
+		Audited audited = injector.getInstance(Audited.class);
+		audited.work(1);
+		audited.work(2);
+		assertTrue(dispatcher.isDrainerRunning());
+		((InjectorImpl) injector).shutdown();
+		//--- Events published before the shutdown are delivered, then the thread exits
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		long deadline = System.currentTimeMillis() + 10000 ;
+		while ( dispatcher.isDrainerRunning() && System.currentTimeMillis() < deadline ) {
+			Thread.sleep(10);
+		}
+		assertFalse(dispatcher.isDrainerRunning());
+		interceptor.thread.join(10000);
+		assertFalse(interceptor.thread.isAlive());
+		//--- Events published after the shutdown are dropped
+		audited.work(3);
+		assertEquals(2 + 3, interceptor.sum.get());
+		assertEquals(1, dispatcher.getDroppedEvents());
+		assertFalse(dispatcher.isDrainerRunning());
+	}
+}
@@ -0,0 +1,307 @@
+package org.nanoj.injector.aop;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.ProxyEngine;
+
+public class TestMethodInterceptor extends TestCase {
+
+	public interface Calculator {
+		int square(int value) ;
+		void fail() throws Exception ;
+		void crash() ;
+	}
+
+	public static class CalculatorImpl implements Calculator {
+		private static int calls = 0 ;
+		public int square(int value) {
+			calls++ ;
+			return value * value ;
+		}
+		public void fail() throws Exception {
+			throw new Exception("failure");
+		}
+		public void crash() {
+			throw new AssertionError("crash");
+		}
+	}
+
+	/**
+	 * Around interceptor returning the cached result without calling the component
+	 */
+	public static class CachingInterceptor extends AbstractMethodInterceptor {
+		private final List<String> events ;
+		private Object cachedResult = null ;
+		public CachingInterceptor(List<String> events) {
+			this.events = events ;
+		}
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			events.add("cache");
+			if ( cachedResult == null ) {
+				cachedResult = invocation.proceed();
+			}
+			return cachedResult ;
+		}
+	}
+
+	/**
+	 * Classic interceptor ( adapted in the chain )
+	 */
+	public static class EventsInterceptor implements Interceptor {
+		private final List<String> events ;
+		public EventsInterceptor(List<String> events) {
+			this.events = events ;
+		}
+		public void beforeCall(Object instance, Method method, Object[] args) {
+			events.add("before");
+		}
+		public void afterCall(Object instance, Method method, Object[] args, Object result) {
+			events.add("after " + result);
+		}
+		public void onError(Object instance, Method method, Object[] args, Exception exception) {
+			events.add("error " + exception.getMessage());
+		}
+	}
+
+	/**
+	 * Classic interceptor throwing an exception in 'afterCall'
+	 */
+	public static class FailingInterceptor implements Interceptor {
+		private final String       name ;
+		private final List<String> events ;
+		private final boolean      failAfterCall ;
+		public FailingInterceptor(String name, List<String> events, boolean failAfterCall) {
+			this.name = name ;
+			this.events = events ;
+			this.failAfterCall = failAfterCall ;
+		}
+		public void beforeCall(Object instance, Method method, Object[] args) {
+			events.add(name + " before");
+		}
+		public void afterCall(Object instance, Method method, Object[] args, Object result) {
+			events.add(name + " after");
+			if ( failAfterCall ) {
+				throw new IllegalStateException(name + " failure");
+			}
+		}
+		public void onError(Object instance, Method method, Object[] args, Exception exception) {
+			events.add(name + " error " + exception.getClass().getSimpleName());
+		}
+	}
+
+	public interface Store {
+		String load(String key) throws IOException ;
+		String name() ;
+	}
+
+	public static class StoreImpl implements Store {
+		public String load(String key) throws IOException {
+			return key ;
+		}
+		public String name() {
+			return "store" ;
+		}
+		@Override
+		public String toString() {
+			return "StoreImpl" ;
+		}
+	}
+
+	/**
+	 * Around interceptor recording the called methods and throwing the checked exception given as argument 
+	 */
+	public static class ThrowingInterceptor extends AbstractMethodInterceptor {
+		private final List<String> events ;
+		private final Exception    exception ;
+		public ThrowingInterceptor(List<String> events, Exception exception) {
+			this.events = events ;
+			this.exception = exception ;
+		}
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			events.add(invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName());
+			if ( exception != null && ! invocation.getMethod().getName().equals("toString") ) {
+				throw exception ;
+			}
+			return invocation.proceed();
+		}
+	}
+
+	private Injector createInjector(ProxyEngine proxyEngine, final List<String> events) {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		configuration.defineProxyEngine(proxyEngine);
+		configuration.defineImplementationClass(Calculator.class, CalculatorImpl.class);
+		configuration.defineInterceptorProvider(new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return new EventsInterceptor(events);
+			}
+		});
+		configuration.defineInterceptorProvider(new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return new CachingInterceptor(events);
+			}
+		}, new PointCut() {
+			public boolean callInterceptor(Method method, Object componentInstance) {
+				return method.getName().equals("square");
+			}
+		});
+		return InjectorFactory.createInjector("test", configuration);
+	}
+
+	private void checkChain(ProxyEngine proxyEngine) throws Exception {
+		CalculatorImpl.calls = 0 ;
+		List<String> events = new ArrayList<String>();
+		Injector injector = createInjector(proxyEngine, events);
+		Calculator calculator = injector.getInstance(Calculator.class);
+
+		assertEquals(9, calculator.square(3));
+		assertEquals(9, calculator.square(3));
+		assertEquals("[before, cache, after 9, before, cache, after 9]", events.toString());
+		assertEquals(1, CalculatorImpl.calls); // second call : cached result
+
+		events.clear();
+		try {
+			calculator.fail();
+			fail("Exception expected");
+		} catch (Exception e) {
+			assertEquals("failure", e.getMessage());
+		}
+		assertEquals("[before, error failure]", events.toString());
+	}
+
+	private void checkNestedInterceptors(ProxyEngine proxyEngine) throws Exception {
+		final List<String> events = new ArrayList<String>();
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		configuration.defineProxyEngine(proxyEngine);
+		configuration.defineImplementationClass(Calculator.class, CalculatorImpl.class);
+		configuration.defineInterceptorProvider(new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return new FailingInterceptor("outer", events, false);
+			}
+		});
+		configuration.defineInterceptorProvider(new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return new FailingInterceptor("inner", events, true);
+			}
+		});
+		Calculator calculator = InjectorFactory.createInjector("test", configuration).getInstance(Calculator.class);
+
+		//--- Exception thrown by the inner interceptor : propagated without any other event
+		try {
+			calculator.square(2);
+			fail("Exception expected");
+		} catch (IllegalStateException e) {
+			assertEquals("inner failure", e.getMessage());
+		}
+		assertEquals("[outer before, inner before, inner after]", events.toString());
+
+		//--- Exception thrown by the component : 'onError' for all the interceptors ( reverse order )
+		events.clear();
+		try {
+			calculator.fail();
+			fail("Exception expected");
+		} catch (Exception e) {
+			assertEquals("failure", e.getMessage());
+		}
+		assertEquals("[outer before, inner before, inner error Exception, outer error Exception]", events.toString());
+
+		//--- Error thrown by the component : notified as an InjectorException, the Error is propagated
+		events.clear();
+		try {
+			calculator.crash();
+			fail("Error expected");
+		} catch (AssertionError e) {
+			assertEquals("crash", e.getMessage());
+		}
+		assertEquals("[outer before, inner before, inner error InjectorException, outer error InjectorException]", events.toString());
+	}
+
+	private Store createStore(ProxyEngine proxyEngine, final List<String> events, final Exception exception) {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		configuration.defineProxyEngine(proxyEngine);
+		configuration.defineImplementationClass(Store.class, StoreImpl.class);
+		configuration.defineInterceptorProvider(new InterceptorProvider() {
+			public Interceptor getInterceptor(Method interfaceMethod, Object componentInstance) {
+				return new ThrowingInterceptor(events, exception);
+			}
+		});
+		return InjectorFactory.createInjector("test", configuration).getInstance(Store.class);
+	}
+
+	/**
+	 * Same behavior for all the proxy engines ( reference : java.lang.reflect.Proxy )
+	 * @param proxyEngine
+	 * @throws Exception
+	 */
+	private void checkProxyContract(ProxyEngine proxyEngine) throws Exception {
+		List<String> events = new ArrayList<String>();
+
+		//--- java.lang.Object methods : through the interceptors
+		Store store = createStore(proxyEngine, events, null);
+		assertEquals("StoreImpl", store.toString());
+		store.hashCode();
+		assertFalse(store.equals("other"));
+		assertEquals("[Object.toString, Object.hashCode, Object.equals]", events.toString());
+
+		//--- Checked exception thrown by an interceptor 
+		events.clear();
+		store = createStore(proxyEngine, events, new IOException("declared"));
+		try {
+			store.load("key");
+			fail("Exception expected");
+		} catch (IOException e) {
+			assertEquals("declared", e.getMessage()); // declared : thrown as is
+		}
+		try {
+			store.name();
+			fail("Exception expected");
+		} catch (UndeclaredThrowableException e) {
+			assertEquals("declared", e.getCause().getMessage()); // not declared : wrapped
+		}
+		try {
+			store.hashCode();
+			fail("Exception expected");
+		} catch (UndeclaredThrowableException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+		assertEquals("[Store.load, Store.name, Object.hashCode]", events.toString());
+	}
+
+	public void testJdkProxyContract() throws Exception {
+		checkProxyContract(ProxyEngine.JDK);
+	}
+
+	public void testGeneratedProxyContract() throws Exception {
+		checkProxyContract(ProxyEngine.GENERATED);
+	}
+
+	public void testJdkProxyNestedInterceptors() throws Exception {
+		checkNestedInterceptors(ProxyEngine.JDK);
+	}
+
+	public void testGeneratedProxyNestedInterceptors() throws Exception {
+		checkNestedInterceptors(ProxyEngine.GENERATED);
+	}
+
+	public void testJdkProxyChain() throws Exception {
+		checkChain(ProxyEngine.JDK);
+	}
+
+	public void testGeneratedProxyChain() throws Exception {
+		checkChain(ProxyEngine.GENERATED);
+	}
+}
@@ -0,0 +1,109 @@
+package org.nanoj.injector.impl;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.inject.Provider;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.aop.InterceptorProvider;
+
+public class TestComponentIndex extends TestCase {
+
+	/**
+	 * In the test index 'META-INF/nanoj/components' with 'IndexedOther' as implementation
+	 */
+	public interface Indexed {
+	}
+	public static class IndexedImpl implements Indexed {
+	}
+	public static class IndexedOther implements Indexed {
+	}
+
+	/**
+	 * In the test index with an implementation that does not match the conventions ( partial index )
+	 */
+	public interface PartlyIndexed {
+	}
+	public static class PartlyIndexedImpl implements PartlyIndexed {
+	}
+
+	/**
+	 * Not in the index
+	 */
+	public interface NotIndexed {
+	}
+	public static class NotIndexedImpl implements NotIndexed {
+	}
+
+	private final static String[] CONVENTIONS = { 
+		"${package}.TestComponentIndex$${class}Impl", 
+		"${package}.TestComponentIndex$${class}Other" } ;
+
+	private Injector createInjector(boolean partialComponentIndex) {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		for ( String convention : CONVENTIONS ) {
+			configuration.defineImplementationConvention(convention);
+		}
+		configuration.definePartialComponentIndex(partialComponentIndex);
+		return InjectorFactory.createInjector("index", configuration);
+	}
+
+	/**
+	 * Injector keeping the names of the classes loaded for the conventions ( complete index )
+	 */
+	private static class LoadingInjector extends InjectorImpl {
+		private final List<String> loadedClasses = new LinkedList<String>();
+		LoadingInjector() {
+			super("loading", new HashMap<Class<?>, Class<?>>(), CONVENTIONS, 
+					new HashMap<Class<?>, Provider<?>>(), new InterceptorProvider[0], LoggingPolicy.OFF);
+		}
+		@Override
+		Class<?> loadImplementationClass(String className) {
+			loadedClasses.add(className);
+			return super.loadImplementationClass(className);
+		}
+	}
+
+	public void testIndex() {
+		ComponentIndex index = new ComponentIndex(getClass().getClassLoader());
+		assertEquals(1, index.getImplementations(Indexed.class).size());
+		assertTrue(index.getImplementations(Indexed.class).contains(IndexedOther.class.getName()));
+		assertNull(index.getImplementations(NotIndexed.class));
+	}
+
+	public void testConventionWithIndex() {
+		//--- The first convention gives a class that exists but is not an indexed implementation
+		assertEquals(IndexedOther.class, createInjector(false).getInstance(Indexed.class).getClass());
+	}
+
+	public void testIndexedConventionMissNotLoaded() {
+		LoadingInjector injector = new LoadingInjector();
+		assertEquals(IndexedOther.class, injector.getInstance(Indexed.class).getClass());
+		//--- No indexed implementation matching the conventions : no class loading ( complete index )
+		try {
+			injector.getInstance(PartlyIndexed.class);
+			fail("InjectorException expected");
+		} catch (InjectorException e) {
+			// No implementation
+		}
+		assertEquals(1, injector.loadedClasses.size());
+		assertEquals(IndexedOther.class.getName(), injector.loadedClasses.get(0));
+	}
+
+	public void testConventionWithPartialIndex() {
+		//--- Partial index declared : the class names not indexed are loaded 
+		assertEquals(PartlyIndexedImpl.class, createInjector(true).getInstance(PartlyIndexed.class).getClass());
+	}
+
+	public void testConventionWithoutIndex() {
+		assertEquals(NotIndexedImpl.class, createInjector(false).getInstance(NotIndexed.class).getClass());
+	}
+}
@@ -0,0 +1,126 @@
+package org.nanoj.injector.impl;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+
+public class TestComponentRegistry extends TestCase {
+
+	private final static int THREADS = 8 ;
+
+	public static class Component {
+	}
+
+	private InjectorImpl createInjector() {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		return (InjectorImpl) InjectorFactory.createInjector("registry", configuration);
+	}
+
+	/**
+	 * Creation task counting its calls, slow enough to have all the threads waiting for the same key
+	 */
+	private static class CreationTask implements Callable<ComponentDefinition<?>> {
+		private final InjectorImpl  injector ;
+		private final AtomicInteger calls = new AtomicInteger();
+		private final int           failures ;
+		CreationTask(InjectorImpl injector, int failures) {
+			this.injector = injector ;
+			this.failures = failures ;
+		}
+		public ComponentDefinition<?> call() throws Exception {
+			int call = calls.incrementAndGet();
+			Thread.sleep(20);
+			if ( call <= failures ) {
+				throw new InjectorException("Creation failure " + call);
+			}
+			return new ComponentDefinition<Component>(injector, Component.class);
+		}
+	}
+
+	/**
+	 * Runs 'getOrCreate' for the same key in all the threads at the same time
+	 * @return the result of each thread ( definition or exception )
+	 */
+	private Object[] race(final ComponentRegistry registry, final CreationTask task) throws Exception {
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Object>> futures = new LinkedList<Future<Object>>();
+			for ( int i = 0 ; i < THREADS ; i++ ) {
+				futures.add(executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						start.await();
+						try {
+							return registry.getOrCreate(Component.class, task);
+						} catch (InjectorException e) {
+							return e ;
+						}
+					}
+				}));
+			}
+			start.countDown();
+			Object[] results = new Object[THREADS];
+			int i = 0 ;
+			for ( Future<Object> future : futures ) {
+				results[i++] = future.get(10, TimeUnit.SECONDS);
+			}
+			return results ;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public void testSingleCreation() throws Exception {
+		ComponentRegistry registry = new ComponentRegistry();
+		CreationTask task = new CreationTask(createInjector(), 0);
+		Object[] results = race(registry, task);
+
+		assertEquals(1, task.calls.get());
+		assertNotNull(registry.get(Component.class));
+		for ( Object result : results ) {
+			assertSame(registry.get(Component.class), result);
+		}
+		assertEquals(1, registry.getAll().size());
+	}
+
+	public void testFailedCreationRetried() throws Exception {
+		ComponentRegistry registry = new ComponentRegistry();
+		CreationTask task = new CreationTask(createInjector(), 1);
+
+		//--- The threads waiting for the failed creation get its exception ( or retry after it )
+		Object[] results = race(registry, task);
+		int failures = 0 ;
+		for ( Object result : results ) {
+			if ( result instanceof InjectorException ) {
+				assertEquals("Creation failure 1", ((InjectorException) result).getMessage());
+				failures++ ;
+			}
+		}
+		assertTrue(failures >= 1);
+		assertTrue(task.calls.get() <= 2);
+		if ( task.calls.get() == 1 ) {
+			assertNull(registry.get(Component.class)); // nothing registered for the failed creation
+		}
+
+		//--- The key has been released : the next request creates the definition
+		ComponentDefinition<?> definition = registry.getOrCreate(Component.class, task);
+		assertNotNull(definition);
+		assertSame(definition, registry.get(Component.class));
+		assertSame(definition, registry.getOrCreate(Component.class, task));
+		assertEquals(2, task.calls.get());
+	}
+}
@@ -0,0 +1,101 @@
+package org.nanoj.injector.impl;
+
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.aop.InterceptorProvider;
+import org.nanoj.injector.spi.ComponentFactory;
+
+public class TestGeneratedFactory extends TestCase {
+
+	public static class Dependency {
+	}
+
+	/**
+	 * No @Inject annotation : the constructor and the field are given by the factory
+	 */
+	@Singleton
+	public static class Component {
+		final Dependency constructorDependency ;
+		Dependency fieldDependency ;
+		public Component(Dependency dependency) {
+			this.constructorDependency = dependency ;
+		}
+		public Component() {
+			this(null);
+		}
+	}
+
+	/**
+	 * Factory as generated by the annotation processor ( registered in the test index 'META-INF/nanoj/factories' )
+	 */
+	public static class ComponentFactoryImpl implements ComponentFactory<Component> {
+		private final static AtomicInteger instances = new AtomicInteger();
+		public Class<Component> getComponentClass() {
+			return Component.class ;
+		}
+		public Class<?>[] getConstructorDependencies() {
+			return new Class<?>[] { Dependency.class } ;
+		}
+		public Class<?>[] getFieldDependencies() {
+			return new Class<?>[] { Dependency.class } ;
+		}
+		public boolean isSingleton() {
+			return true ;
+		}
+		public Class<? extends Annotation> getScopeAnnotation() {
+			return null ;
+		}
+		public Component newInstance(Object[] args) {
+			instances.incrementAndGet();
+			return new Component((Dependency) args[0]);
+		}
+		public void injectFields(Component instance, Object[] values) {
+			instance.fieldDependency = (Dependency) values[0] ;
+		}
+	}
+
+	public void testGeneratedFactory() {
+		Injector injector = InjectorFactory.createInjector("generated", new InjectorConfiguration());
+		int instances = ComponentFactoryImpl.instances.get();
+		Component component = injector.getInstance(Component.class);
+		assertEquals(instances + 1, ComponentFactoryImpl.instances.get());
+		assertNotNull(component.constructorDependency);
+		assertNotNull(component.fieldDependency);
+		assertNotSame(component.constructorDependency, component.fieldDependency);
+		//--- Singleton
+		assertSame(component, injector.getInstance(Component.class));
+		assertEquals(instances + 1, ComponentFactoryImpl.instances.get());
+	}
+
+	public void testGeneratedFactoryWithMonoInstanceOverridden() {
+		//--- The injector decides the mono-instance flag, even with a generated factory
+		Injector injector = new InjectorImpl("overridden", new HashMap<Class<?>, Class<?>>(), new String[0],
+				new HashMap<Class<?>, Provider<?>>(), new InterceptorProvider[0], LoggingPolicy.OFF) {
+			@Override
+			protected boolean isMonoInstance(Class<?> cl) {
+				return false ;
+			}
+		};
+		int instances = ComponentFactoryImpl.instances.get();
+		Component component = injector.getInstance(Component.class);
+		assertNotSame(component, injector.getInstance(Component.class));
+		assertEquals(instances + 2, ComponentFactoryImpl.instances.get());
+	}
+
+	public void testStaleIndexEntry() {
+		//--- Factory class not found : reflection used
+		Injector injector = InjectorFactory.createInjector("stale", new InjectorConfiguration());
+		assertNotNull(injector.getInstance(Dependency.class));
+	}
+}
@@ -0,0 +1,141 @@
+package org.nanoj.injector.impl;
+
+import java.lang.reflect.Method;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorFactory;
+
+public class TestSingletonCreation extends TestCase {
+
+	private final static int THREADS = 32 ;
+
+	private final static int ROUNDS = 20 ;
+
+	@Singleton
+	public static class SlowSingleton {
+		private final static AtomicInteger constructions = new AtomicInteger();
+		public SlowSingleton() {
+			constructions.incrementAndGet();
+			try {
+				Thread.sleep(20); // wide window for concurrent creations
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	public static class Client {
+		@Inject
+		private SlowSingleton singleton ;
+	}
+
+	/**
+	 * Returns a factory of virtual threads if available ( Java 21+ ), else null
+	 */
+	private static ThreadFactory getVirtualThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method factoryMethod = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factoryMethod.invoke(builder);
+		} catch (Exception e) {
+			return null ;
+		}
+	}
+
+	private List<Object> getInstancesConcurrently(final Injector injector, final Class<?> clazz) throws Exception {
+		final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Object>> futures = new LinkedList<Future<Object>>();
+			for ( int i = 0 ; i < THREADS ; i++ ) {
+				futures.add( executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						barrier.await(); // all the threads start together
+						return injector.getInstance(clazz);
+					}
+				}));
+			}
+			List<Object> instances = new LinkedList<Object>();
+			for ( Future<Object> future : futures ) {
+				instances.add(future.get());
+			}
+			return instances ;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public void testSingleConstructionUnderContention() throws Exception {
+		SlowSingleton.constructions.set(0);
+		for ( int round = 1 ; round <= ROUNDS ; round++ ) {
+			Injector injector = InjectorFactory.createInjector("test-" + round);
+			List<Object> instances = getInstancesConcurrently(injector, SlowSingleton.class);
+
+			//--- Exactly one construction per injector
+			assertEquals(round, SlowSingleton.constructions.get());
+
+			//--- All the threads got the same instance
+			Object first = instances.get(0);
+			assertNotNull(first);
+			for ( Object instance : instances ) {
+				assertSame(first, instance);
+			}
+		}
+	}
+
+	public void testVirtualThreads() throws Exception {
+		ThreadFactory threadFactory = getVirtualThreadFactory();
+		boolean virtualThreads = ( threadFactory != null ) ;
+		final int threadsCount = ( virtualThreads ? 5000 : 1000 ) ;
+		if ( ! virtualThreads ) {
+			threadFactory = Executors.defaultThreadFactory();
+		}
+		SlowSingleton.constructions.set(0);
+		final Injector injector = InjectorFactory.createInjector("test-threads");
+		final CountDownLatch start = new CountDownLatch(1);
+		final Client[] clients = new Client[threadsCount];
+		Thread[] threads = new Thread[threadsCount];
+		for ( int i = 0 ; i < threadsCount ; i++ ) {
+			final int index = i ;
+			threads[i] = threadFactory.newThread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+						clients[index] = injector.getInstance(Client.class);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for ( Thread thread : threads ) {
+			thread.join(30000);
+		}
+
+		//--- One singleton shared by all the clients
+		assertEquals(1, SlowSingleton.constructions.get());
+		SlowSingleton singleton = injector.getInstance(SlowSingleton.class);
+		for ( Client client : clients ) {
+			assertNotNull(client);
+			assertSame(singleton, client.singleton);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package org.nanoj.injector.scope;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import junit.framework.TestCase;
+
+import org.nanoj.injector.Injector;
+import org.nanoj.injector.InjectorConfiguration;
+import org.nanoj.injector.InjectorException;
+import org.nanoj.injector.InjectorFactory;
+import org.nanoj.injector.LoggingPolicy;
+import org.nanoj.injector.impl.InjectorImpl;
+
+public class TestScopes extends TestCase {
+
+	@ThreadScoped
+	public static class ThreadContext {
+	}
+
+	@UnitOfWorkScoped
+	public static class RequestContext {
+	}
+
+	@UnitOfWorkScoped
+	public static class OtherRequestContext {
+	}
+
+	public static class Handler {
+		@Inject
+		private RequestContext requestContext ;
+	}
+
+	private Injector createInjector(UnitOfWorkScope unitOfWorkScope) {
+		InjectorConfiguration configuration = new InjectorConfiguration();
+		configuration.defineLoggingPolicy(LoggingPolicy.OFF);
+		if ( unitOfWorkScope != null ) {
+			configuration.defineScope(UnitOfWorkScoped.class, unitOfWorkScope);
+		}
+		return InjectorFactory.createInjector("scopes", configuration);
+	}
+
+	public void testThreadScope() throws InterruptedException {
+		final Injector injector = createInjector(null);
+		ThreadContext context = injector.getInstance(ThreadContext.class);
+		assertSame(context, injector.getInstance(ThreadContext.class));
+
+		final Object[] otherThreadContext = new Object[1];
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				otherThreadContext[0] = injector.getInstance(ThreadContext.class);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertNotNull(otherThreadContext[0]);
+		assertNotSame(context, otherThreadContext[0]);
+	}
+
+	/**
+	 * Task getting the thread scoped instance in a pooled thread
+	 */
+	private static class ThreadContextTask implements Callable<ThreadContext> {
+		private final InjectorImpl injector ;
+		private final boolean      clear ;
+		ThreadContextTask(InjectorImpl injector, boolean clear) {
+			this.injector = injector ;
+			this.clear = clear ;
+		}
+		public ThreadContext call() {
+			try {
+				return injector.getInstance(ThreadContext.class);
+			} finally {
+				if ( clear ) {
+					injector.getThreadScope().clear(); // before returning the thread to the pool
+				}
+			}
+		}
+	}
+
+	public void testThreadScopeClearedInPool() throws Exception {
+		InjectorImpl injector = (InjectorImpl) createInjector(null);
+		assertNotNull(injector.getThreadScope());
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			//--- Not cleared : the next task of the same thread gets the same instance
+			ThreadContext first = pool.submit(new ThreadContextTask(injector, false)).get(10, TimeUnit.SECONDS);
+			assertSame(first, pool.submit(new ThreadContextTask(injector, true)).get(10, TimeUnit.SECONDS));
+
+			//--- Cleared by the previous task : new instance
+			assertNotSame(first, pool.submit(new ThreadContextTask(injector, false)).get(10, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	public void testThreadScopeReleasedOnShutdown() throws Exception {
+		InjectorImpl injector = (InjectorImpl) createInjector(null);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			ThreadContext first = pool.submit(new ThreadContextTask(injector, false)).get(10, TimeUnit.SECONDS);
+			injector.shutdown();
+			assertNotSame(first, pool.submit(new ThreadContextTask(injector, false)).get(10, TimeUnit.SECONDS));
+
+			//--- The storage of the pooled thread does not retain the injector
+			WeakReference<InjectorImpl> reference = new WeakReference<InjectorImpl>(injector);
+			injector = null ;
+			for ( int i = 0 ; i < 50 && reference.get() != null ; i++ ) {
+				System.gc();
+				Thread.sleep(10);
+			}
+			assertNull(reference.get());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	public void testUnitOfWorkScope() {
+		UnitOfWorkScope unitOfWork = new UnitOfWorkScope();
+		Injector injector = createInjector(unitOfWork);
+
+		unitOfWork.enter();
+		RequestContext first ;
+		try {
+			first = injector.getInstance(RequestContext.class);
+			assertSame(first, injector.getInstance(Handler.class).requestContext);
+
+			//--- Nested unit of work
+			unitOfWork.enter();
+			assertNotSame(first, injector.getInstance(RequestContext.class));
+			unitOfWork.exit();
+			assertSame(first, injector.getInstance(RequestContext.class));
+		} finally {
+			unitOfWork.exit();
+		}
+		assertFalse(unitOfWork.isActive());
+
+		unitOfWork.enter();
+		try {
+			assertNotSame(first, injector.getInstance(RequestContext.class));
+		} finally {
+			unitOfWork.exit();
+		}
+
+		try {
+			injector.getInstance(RequestContext.class);
+			fail("No unit of work : exception expected");
+		} catch (InjectorException e) {
+			// Expected
+		}
+	}
+
+	public void testUnitOfWorkScopeSharedByInjectors() {
+		UnitOfWorkScope unitOfWork = new UnitOfWorkScope();
+		Injector injector1 = createInjector(unitOfWork);
+		Injector injector2 = createInjector(unitOfWork);
+
+		unitOfWork.enter();
+		try {
+			//--- Compact ids for each injector : id 0 for the 1st scoped component of each injector
+			RequestContext requestContext = injector1.getInstance(RequestContext.class);
+			OtherRequestContext otherRequestContext = injector2.getInstance(OtherRequestContext.class);
+			ScopeStorage storage = unitOfWork.getStorage();
+			assertSame(requestContext, storage.get(((InjectorImpl) injector1).getScopeOwner(), 0));
+			assertSame(otherRequestContext, storage.get(((InjectorImpl) injector2).getScopeOwner(), 0));
+
+			assertSame(requestContext, injector1.getInstance(RequestContext.class));
+			assertSame(otherRequestContext, injector2.getInstance(OtherRequestContext.class));
+			assertNotSame(requestContext, injector2.getInstance(RequestContext.class));
+			assertSame(injector2.getInstance(RequestContext.class), storage.get(((InjectorImpl) injector2).getScopeOwner(), 1));
+		} finally {
+			unitOfWork.exit();
+		}
+	}
+
+	public void testUndefinedScope() {
+		Injector injector = createInjector(null);
+		try {
+			injector.getInstance(RequestContext.class);
+			fail("Undefined scope : exception expected");
+		} catch (InjectorException e) {
+			assertTrue(e.getMessage().contains("UnitOfWorkScoped"));
+		}
+	}
+}
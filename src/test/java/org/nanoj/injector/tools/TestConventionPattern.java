@@ -0,0 +1,50 @@
+package org.nanoj.injector.tools;
+
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class TestConventionPattern extends TestCase {
+
+	private final static String[] PATTERNS = {
+		"aaa.bbb.${class}",
+		"aaa.bbb.${class}Impl",
+		"${package}.${class}Impl",
+		"${package}.impl.${class}",
+		"${package}.impl.${class}Impl",
+		"${package-1}.${class}",
+		"${package-1}.${class}Impl",
+		"${package-2}.${class}Impl",
+		"${package-3}.impl.${class}Impl",
+		"${package-12}.${class}Impl",
+		"aa.bbb${package-1 }.ccc.${class}",
+		"${class}Impl.${package}",
+		"${package}.${package}.${class}.${class}",
+		"${package}.${package-1}.${class}",
+		"${package}",
+		"no.variable",
+	};
+
+	private final static Class<?>[] CLASSES = {
+		String.class,
+		ClassTools.class,
+		Map.Entry.class,
+		TestConventionPattern.class
+	};
+
+	public void testSameResultAsClassTools() {
+		for ( String pattern : PATTERNS ) {
+			ConventionPattern conventionPattern = new ConventionPattern(pattern);
+			for ( Class<?> clazz : CLASSES ) {
+				assertEquals(pattern + " / " + clazz.getName(), 
+						ClassTools.applyClassOnPattern(clazz, pattern), conventionPattern.apply(clazz) );
+			}
+		}
+	}
+
+	public void testApply() {
+		assertEquals("java.lang.impl.StringImpl", new ConventionPattern("${package}.impl.${class}Impl").apply(String.class));
+		assertEquals("org.ClassToolsImpl", new ConventionPattern("${package-3}.${class}Impl").apply(ClassTools.class));
+		assertEquals("StringImpl", new ConventionPattern("${package-2}.${class}Impl").apply(String.class));
+	}
+}
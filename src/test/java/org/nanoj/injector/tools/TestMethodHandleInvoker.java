@@ -0,0 +1,56 @@
+package org.nanoj.injector.tools;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+public class TestMethodHandleInvoker extends TestCase {
+
+	interface Counter {
+		int add(int a, int b) ;
+		void reset() ;
+		String check(String s) throws IOException ;
+	}
+
+	public static class CounterImpl implements Counter {
+		private int total = 0 ;
+		public int add(int a, int b) {
+			total += a + b ;
+			return total ;
+		}
+		public void reset() {
+			total = 0 ;
+		}
+		public String check(String s) throws IOException {
+			if ( s == null ) {
+				throw new IOException("null");
+			}
+			return s ;
+		}
+	}
+
+	public void testInvoke() throws Throwable {
+		CounterImpl counter = new CounterImpl();
+		Method add = Counter.class.getDeclaredMethod("add", int.class, int.class);
+		assertEquals(Integer.valueOf(3), MethodHandleInvoker.invoke(counter, add, new Object[] { 1, 2 }));
+		assertEquals(Integer.valueOf(6), MethodHandleInvoker.invoke(counter, add, new Object[] { 1, 2 }));
+		assertSame(MethodHandleInvoker.getMethodHandle(add), MethodHandleInvoker.getMethodHandle(add));
+
+		//--- Void method without arguments ( null array as with the JDK proxies )
+		Method reset = Counter.class.getDeclaredMethod("reset");
+		assertNull(MethodHandleInvoker.invoke(counter, reset, null));
+		assertEquals(Integer.valueOf(3), MethodHandleInvoker.invoke(counter, add, new Object[] { 1, 2 }));
+	}
+
+	public void testExceptionNotWrapped() throws Throwable {
+		Method check = Counter.class.getDeclaredMethod("check", String.class);
+		assertEquals("a", MethodHandleInvoker.invoke(new CounterImpl(), check, new Object[] { "a" }));
+		try {
+			MethodHandleInvoker.invoke(new CounterImpl(), check, new Object[] { null });
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertEquals("null", e.getMessage());
+		}
+	}
+}